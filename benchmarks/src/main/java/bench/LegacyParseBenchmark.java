@@ -0,0 +1,60 @@
+package bench;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import src.RawJSONHandler;
+
+/**
+ * The substring-based {@link RawJSONHandler} parsers, kept as a baseline.
+ * They copy every nested value once per level, so the sizes stop at 1 MB;
+ * add larger ones with {@code -p size=...} if needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class LegacyParseBenchmark {
+
+    @Param({ "FLAT", "DEEP", "WIDE", "STRINGS", "NUMBERS" })
+    public Payloads.Shape shape;
+
+    @Param({ "1KB", "100KB", "1MB" })
+    public String size;
+
+    private String array;
+    private String concatenated;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Payloads payloads = Payloads.generate(shape, size);
+        array = payloads.array();
+        concatenated = payloads.concatenated();
+    }
+
+    @Benchmark
+    public List<Object> parseList() {
+        return RawJSONHandler.parseList_(array);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> parseMultipleMaps() {
+        return RawJSONHandler.parseMultipleMaps(concatenated);
+    }
+}
@@ -0,0 +1,59 @@
+package bench;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import src.NSON;
+
+/**
+ * Parsing and validation of whole documents: {@code NSON.loads} and
+ * {@code NSON.isValidJSON}, for every payload shape from 1 KB to 100 MB.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class ParseBenchmark {
+
+    @Param({ "FLAT", "DEEP", "WIDE", "STRINGS", "NUMBERS" })
+    public Payloads.Shape shape;
+
+    @Param({ "1KB", "100KB", "10MB", "100MB" })
+    public String size;
+
+    private final NSON nson = new NSON();
+    private String json;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        json = Payloads.generate(shape, size).document(shape);
+        if (!nson.isValidJSON(json)) {
+            throw new IllegalStateException("Generated payload is not valid JSON: " + shape + " " + size);
+        }
+    }
+
+    @Benchmark
+    public Map<String, Object> loads() {
+        return nson.loads(json);
+    }
+
+    @Benchmark
+    public boolean isValidJSON() {
+        return nson.isValidJSON(json);
+    }
+}
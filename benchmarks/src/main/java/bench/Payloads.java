@@ -0,0 +1,207 @@
+package bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * =============================================================================
+ * Payloads.java
+ * =============================================================================
+ *
+ * Deterministic JSON payloads for the benchmarks.
+ *
+ * A payload is a list of records of one {@link Shape}, generated until
+ * their total size reaches a target. The same records are offered as one
+ * document ({@code {"shape": ..., "items": [...]}}), as a bare array and
+ * as concatenated objects, so every parser gets equivalent input. A fixed
+ * seed makes runs comparable across commits.
+ *
+ * =============================================================================
+ */
+public final class Payloads {
+
+    /** Structural profile of the generated records. */
+    public enum Shape {
+        /** Small objects of mixed scalar members. */
+        FLAT,
+        /** Chains of nested objects, 32 levels deep. */
+        DEEP,
+        /** Objects with 200 members each. */
+        WIDE,
+        /** Long strings with escapes and non-ASCII text. */
+        STRINGS,
+        /** Arrays of integers, decimals and exponents. */
+        NUMBERS
+    }
+
+    private static final long SEED = 0x5EED_2024L;
+    private static final int DEPTH = 32;
+    private static final int WIDTH = 200;
+    private static final String[] WORDS = {
+        "alpha", "beta", "gamma", "delta", "epsilon", "zeta", "eta", "theta",
+        "café", "naïve", "日本", "über", "quote\\\"d", "tab\\t", "line\\n", "\\u00e9"
+    };
+
+    private final List<String> records;
+
+    private Payloads(List<String> records) {
+        this.records = records;
+    }
+
+    /**
+     * Generates records of {@code shape} until they total at least
+     * {@code size} characters, e.g. {@code "1KB"} or {@code "100MB"}.
+     */
+    public static Payloads generate(Shape shape, String size) {
+        long target = parseSize(size);
+        Random random = new Random(SEED);
+        List<String> records = new ArrayList<>();
+        long total = 0;
+        StringBuilder sb = new StringBuilder();
+        do {
+            sb.setLength(0);
+            record(shape, records.size(), random, sb);
+            records.add(sb.toString());
+            total += sb.length() + 1;
+        } while (total < target);
+        return new Payloads(records);
+    }
+
+    /** {@code {"shape":"FLAT","items":[...]}}, for the Map-returning APIs. */
+    public String document(Shape shape) {
+        StringBuilder sb = new StringBuilder(length() + 40);
+        sb.append("{\"shape\":\"").append(shape).append("\",\"items\":");
+        appendArray(sb);
+        return sb.append('}').toString();
+    }
+
+    /** The records as one top-level array. */
+    public String array() {
+        StringBuilder sb = new StringBuilder(length() + 2);
+        appendArray(sb);
+        return sb.toString();
+    }
+
+    /** The records back to back, as read by {@code parseMultipleMaps}. */
+    public String concatenated() {
+        StringBuilder sb = new StringBuilder(length());
+        for (String record : records) {
+            sb.append(record).append('\n');
+        }
+        return sb.toString();
+    }
+
+    public int count() {
+        return records.size();
+    }
+
+    // ------------------------------------------------------------------------
+    // 1. --------------------------- Records ---------------------------------
+    // ------------------------------------------------------------------------
+
+    private static void record(Shape shape, int n, Random random, StringBuilder sb) {
+        switch (shape) {
+            case FLAT:
+                sb.append("{\"id\":").append(n)
+                    .append(",\"name\":\"user-").append(n)
+                    .append("\",\"email\":\"user").append(n).append("@example.com\"")
+                    .append(",\"active\":").append(random.nextBoolean())
+                    .append(",\"score\":").append(random.nextInt(100000) / 100.0)
+                    .append(",\"manager\":null}");
+                break;
+            case DEEP:
+                for (int level = 0; level < DEPTH; level++) {
+                    sb.append("{\"level\":").append(level).append(",\"child\":");
+                }
+                sb.append("{\"id\":").append(n).append('}');
+                for (int level = 0; level < DEPTH; level++) {
+                    sb.append('}');
+                }
+                break;
+            case WIDE:
+                sb.append('{');
+                for (int i = 0; i < WIDTH; i++) {
+                    if (i > 0) {
+                        sb.append(',');
+                    }
+                    sb.append("\"field").append(i).append("\":");
+                    if ((i & 1) == 0) {
+                        sb.append(random.nextInt(1000));
+                    } else {
+                        sb.append('"').append(WORDS[random.nextInt(8)]).append('"');
+                    }
+                }
+                sb.append('}');
+                break;
+            case STRINGS:
+                sb.append("{\"title\":\"").append(words(random, 6)).append("\",\"body\":\"").append(words(random, 60)).append("\"}");
+                break;
+            case NUMBERS:
+                sb.append("{\"values\":[");
+                for (int i = 0; i < 32; i++) {
+                    if (i > 0) {
+                        sb.append(',');
+                    }
+                    switch (i % 4) {
+                        case 0: sb.append(random.nextLong()); break;
+                        case 1: sb.append(random.nextInt(1000000) - 500000); break;
+                        case 2: sb.append(random.nextDouble() * 1000); break;
+                        default: sb.append(random.nextInt(9) + 1).append('.').append(random.nextInt(1000)).append("e-").append(random.nextInt(20));
+                    }
+                }
+                sb.append("]}");
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown shape " + shape);
+        }
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                sb.append(' ');
+            }
+            sb.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sb.toString();
+    }
+
+    // ------------------------------------------------------------------------
+    // 2. --------------------------- Helpers ---------------------------------
+    // ------------------------------------------------------------------------
+
+    private void appendArray(StringBuilder sb) {
+        sb.append('[');
+        for (int i = 0; i < records.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(records.get(i));
+        }
+        sb.append(']');
+    }
+
+    private int length() {
+        long length = 0;
+        for (String record : records) {
+            length += record.length() + 1;
+        }
+        return (int) Math.min(length, Integer.MAX_VALUE - 64);
+    }
+
+    static long parseSize(String size) {
+        String s = size.trim().toUpperCase();
+        long unit = 1;
+        if (s.endsWith("KB")) {
+            unit = 1L << 10;
+        } else if (s.endsWith("MB")) {
+            unit = 1L << 20;
+        } else if (s.endsWith("GB")) {
+            unit = 1L << 30;
+        }
+        String digits = unit == 1 ? s.replaceAll("B$", "") : s.substring(0, s.length() - 2);
+        return Long.parseLong(digits.trim()) * unit;
+    }
+}
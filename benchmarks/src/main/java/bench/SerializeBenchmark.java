@@ -0,0 +1,56 @@
+package bench;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import src.NSON;
+
+/**
+ * Serialization with {@code NSON.dumps}, compact and pretty-printed, of
+ * trees parsed from the generated payloads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = { "-Xms4g", "-Xmx4g" })
+public class SerializeBenchmark {
+
+    @Param({ "FLAT", "DEEP", "WIDE", "STRINGS", "NUMBERS" })
+    public Payloads.Shape shape;
+
+    @Param({ "1KB", "100KB", "10MB", "100MB" })
+    public String size;
+
+    private final NSON nson = new NSON();
+    private Map<String, Object> tree;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tree = nson.loads(Payloads.generate(shape, size).document(shape));
+    }
+
+    @Benchmark
+    public String dumpsCompact() {
+        return nson.dumps(tree, 0, false);
+    }
+
+    @Benchmark
+    public String dumpsPretty() {
+        return nson.dumps(tree, 4, false);
+    }
+}
@@ -1,25 +1,26 @@
 package example;
 
-import java.util.Map;
+import java.util.List;
 import src.NSON;
 import src.utility.FileAccess;
+import src.writer.JSONWriter;
 
 public class ReadFromFile {
     
 
     public static void main(String[] args) {
         NSON nson = new NSON();
-        String filepath = "example\\example.json";
+        String filepath = "example/example.json";
         FileAccess file = new FileAccess(filepath);
 
         String jsonString = file.read_raw(); 
-        Map<String, Object> jsonObject = nson.loads(jsonString); 
+        List<Object> jsonArray = nson.loadsList(jsonString); 
 
 
 
         System.out.println("Is valid JSON: " + nson.isValidJSON(jsonString)); 
         System.out.println("----------------------------------------------------");
-        System.out.println(nson.dumps(jsonObject, 5, true)); 
+        System.out.println(JSONWriter.toJson(jsonArray, 5, true)); 
 
     }
 }
@@ -1,14 +1,43 @@
 package src;
 
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.nio.file.Files;
-import java.util.ArrayList;
+import java.nio.file.Path;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
+import src.binary.BinaryDecoder;
+import src.binary.BinaryEncoder;
+import src.binding.ClassCodec;
+import src.binding.TypeBinder;
+import src.exception.JSONBindingException;
+import src.exception.JSONException;
 import src.exception.JSONFileException;
 import src.exception.JSONParseException;
-import src.utility.SymbolBalancer;
+import src.exception.JSONValidationException;
+import src.metrics.NSONEvent;
+import src.metrics.NSONMetrics;
+import src.metrics.NSONMetrics.Operation;
+import src.metrics.Probe;
+import src.parser.JSONParser;
+import src.parser.JSONReader;
+import src.parser.JSONTape;
+import src.parser.JSONToken;
+import src.parser.NDJSONReader;
+import src.parser.ParallelArrayParser;
+import src.parser.ParseOptions;
+import src.parser.PathProjection;
+import src.parser.Utf8Parser;
+import src.utility.AtomicFile;
+import src.utility.BulkLoader;
+import src.utility.ByteSource;
+import src.utility.DocumentCache;
+import src.utility.JSONValidator;
+import src.writer.JSONWriter;
+import src.writer.Utf8ChannelWriter;
 
 /**
  * NSON (Nested Serialization Object Notation)
@@ -24,34 +53,174 @@ import src.utility.SymbolBalancer;
  * - Syntax validation before parsing
  * 
  * Designed for educational and lightweight JSON processing use cases.
+ * <p>
+ * {@code load}, {@code loads}, {@code dump}, {@code dumps} and
+ * {@code isValidJSON} emit an {@link NSONEvent} to JDK Flight Recorder when
+ * that event is enabled, and report to an {@link NSONMetrics} sink when one
+ * is configured.
  */
 public class NSON implements JSON {
 
+    /** File size from which {@link #load(File)} memory-maps the file. */
+    public static final long MAPPED_LOAD_THRESHOLD = 1 << 20;
+
+    private final ParseOptions options;
+    private final DocumentCache cache;
+    private final NSONMetrics metrics;
+
+    public NSON() {
+        this(ParseOptions.DEFAULT);
+    }
+
+    /**
+     * Creates an instance whose parsing methods use the given options.
+     */
+    public NSON(ParseOptions options) {
+        this(options, null);
+    }
+
+    /**
+     * Creates an instance whose {@link #load(File)} serves unchanged files
+     * from {@code cache}. The cache may be shared by several instances with
+     * the same options.
+     */
+    public NSON(ParseOptions options, DocumentCache cache) {
+        this(options, cache, NSONMetrics.NOOP);
+    }
+
+    /**
+     * Creates an instance that reports the duration, size and outcome of
+     * every {@code load}, {@code loads}, {@code dump}, {@code dumps} and
+     * {@code isValidJSON} call to {@code metrics}.
+     *
+     * @param cache   The document cache, or null.
+     * @param metrics The sink, e.g. a {@link src.metrics.HistogramMetrics};
+     *                {@link NSONMetrics#NOOP} disables reporting.
+     */
+    public NSON(ParseOptions options, DocumentCache cache, NSONMetrics metrics) {
+        this.options = options;
+        this.cache = cache;
+        this.metrics = metrics == null ? NSONMetrics.NOOP : metrics;
+    }
+
+    /**
+     * Returns the document cache used by {@link #load(File)}, or null.
+     */
+    public DocumentCache cache() {
+        return cache;
+    }
+
+    /**
+     * Returns the metrics sink, {@link NSONMetrics#NOOP} if none was set.
+     */
+    public NSONMetrics metrics() {
+        return metrics;
+    }
+
     /**
      * Loads and parses a JSON file from the given file path.
      * Equivalent to Python’s {@code json.load()}.
+     * <p>
+     * Files of at least {@link #MAPPED_LOAD_THRESHOLD} bytes are memory-mapped
+     * and parsed as UTF-8 bytes by {@link Utf8Parser}; smaller files are
+     * streamed through {@link JSONReader}. Neither path holds the file in
+     * memory as a single String.
+     * <p>
+     * With a {@link DocumentCache}, a file whose size and modification time
+     * are unchanged since it was last loaded is not read again; the cached,
+     * unmodifiable tree is returned instead.
      *
      * @param file_object The file object pointing to a JSON file.
      * @return A Map representing the JSON structure.
      * @throws JSONFileException  If the file is missing or unreadable.
-     * @throws JSONParseException If the file content is malformed.
+     * @throws JSONParseException If the file content is malformed or its
+     *                            root is not an object; use
+     *                            {@link #loadList} for a root array.
      */
     public Map<String, Object> load(File file_object) {
         if (file_object == null || !file_object.exists() || !file_object.isFile()) {
             throw new JSONFileException("Invalid file path or file does not exist: " + file_object);
         }
+        Probe probe = Probe.begin(metrics, Operation.LOAD);
+        Map<String, Object> result = null;
+        try {
+            result = cache == null ? loadFile(file_object) : cache.get(file_object, this::loadFile);
+            return result;
+        } catch (IOException e) {
+            throw new JSONFileException("Failed to read file: " + file_object.getPath());
+        } finally {
+            probe.end(probe.isActive() ? file_object.length() : -1, result, result != null);
+        }
+    }
 
+    private Map<String, Object> loadFile(File file_object) {
         try {
-            // Read all content from the file
-            String content = Files.readString(file_object.toPath());
+            // Large files are mapped and parsed as raw UTF-8 bytes
+            if (file_object.length() >= MAPPED_LOAD_THRESHOLD) {
+                return Utf8Parser.parseObject(ByteSource.map(file_object.toPath()), options);
+            }
+            return loadStreaming(file_object);
+
+        } catch (IOException e) {
+            throw new JSONFileException("Failed to read file: " + file_object.getPath());
+        } catch (JSONException e) {
+            throw e; // Already reported as a parse or file error
+        } catch (Exception e) {
+            throw new JSONFileException("Unexpected error while loading JSON from file: " + e.getMessage());
+        }
+    }
+
+    private Map<String, Object> loadStreaming(File file_object) throws IOException {
+        @SuppressWarnings("unchecked")
+        Map<String, Object> map = (Map<String, Object>) loadStreaming(file_object, JSONToken.BEGIN_OBJECT);
+        return map;
+    }
 
-            // Delegate parsing to the `loads` method
-            return loads(content);
+    private Object loadStreaming(File file_object, JSONToken root) throws IOException {
+        // Stream the file through a fixed-size buffer instead of reading it into one String
+        try (JSONReader reader = new JSONReader(new FileInputStream(file_object), options)) {
+            if (reader.peek() != root) {
+                char bracket = root == JSONToken.BEGIN_OBJECT ? '{' : '[';
+                throw new JSONParseException("Expected '" + bracket + "' at document root of " + file_object.getPath());
+            }
+            Object tree = reader.readTree();
+            reader.peek(); // rejects trailing content
+            return tree;
+        }
+    }
+
+    /**
+     * Loads and parses a JSON file whose root is an array.
+     * <p>
+     * Files are read like in {@link #load(File)}. Mapped files of at least
+     * {@link ParseOptions#parallelThreshold()} bytes are split at their
+     * top-level commas by {@link ParallelArrayParser} and the elements are
+     * parsed in parallel.
+     *
+     * @param file_object The file object pointing to a JSON file.
+     * @return A List holding the elements of the root array, in order.
+     * @throws JSONFileException  If the file is missing or unreadable.
+     * @throws JSONParseException If the file content is malformed.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Object> loadList(File file_object) {
+        if (file_object == null || !file_object.exists() || !file_object.isFile()) {
+            throw new JSONFileException("Invalid file path or file does not exist: " + file_object);
+        }
 
+        try {
+            long length = file_object.length();
+            if (length >= MAPPED_LOAD_THRESHOLD || length >= options.parallelThreshold()) {
+                ByteSource source = ByteSource.map(file_object.toPath());
+                return length >= options.parallelThreshold()
+                    ? ParallelArrayParser.parse(source, options)
+                    : Utf8Parser.parseArray(source, options);
+            }
+            return (List<Object>) loadStreaming(file_object, JSONToken.BEGIN_ARRAY);
         } catch (IOException e) {
             throw new JSONFileException("Failed to read file: " + file_object.getPath());
-        } catch (JSONParseException e) {
-            throw e; // Already handled by `loads`
+        } catch (JSONException e) {
+            throw e;
         } catch (Exception e) {
             throw new JSONFileException("Unexpected error while loading JSON from file: " + e.getMessage());
         }
@@ -60,23 +229,200 @@ public class NSON implements JSON {
     /**
      * Parses a raw JSON string into a Map.
      * Equivalent to Python’s {@code json.loads()}.
+     * <p>
+     * Parsing is done in a single pass by {@link JSONParser}. The root must
+     * be an object; a document whose root is an array is rejected rather
+     * than read as its first object, so load it with {@link #loadsList}.
      *
      * @param jsonStr A string containing raw JSON.
      * @return A Map representation of the JSON object.
-     * @throws JSONParseException If the input string is malformed.
+     * @throws JSONParseException If the input string is malformed or its
+     *                            root is not an object.
      */
     @Override
     public Map<String, Object> loads(String jsonStr) {
+        Probe probe = Probe.begin(metrics, Operation.LOADS);
+        Map<String, Object> result = null;
         try {
-            return RawJSONHandler.parseMap(jsonStr);
+            result = JSONParser.parseObject(jsonStr, options);
+            return result;
+        } catch (JSONParseException e) {
+            throw e;
         } catch (Exception e) {
             throw new JSONParseException("Failed to parse JSON string.");
+        } finally {
+            probe.end(jsonStr == null ? -1 : jsonStr.length(), result, result != null);
+        }
+    }
+
+    /**
+     * Parses only the parts of a raw JSON string selected by {@code paths}.
+     * <p>
+     * Selectors are JSONPath-like, e.g. {@code $.user.id} or
+     * {@code $.items[*].price} (see {@link PathProjection}). Objects and
+     * arrays that no selector reaches are skipped without being built.
+     *
+     * @param jsonStr A string containing raw JSON.
+     * @param paths   The selectors to extract.
+     * @return A Map from each selector to its value; wildcard selectors map
+     *         to a List of all matches, other selectors are absent when the
+     *         path does not exist.
+     * @throws JSONParseException       If the input string is malformed.
+     * @throws IllegalArgumentException If a selector is malformed.
+     */
+    public Map<String, Object> loads(String jsonStr, String... paths) {
+        PathProjection projection = PathProjection.compile(paths);
+        try {
+            return projection.project(jsonStr, options);
+        } catch (JSONParseException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new JSONParseException("Failed to parse JSON string.");
+        }
+    }
+
+    /**
+     * Parses a raw JSON string straight into an instance of {@code type}.
+     * <p>
+     * Records and POJOs are filled member by member from the token stream
+     * through their cached {@link ClassCodec}; no intermediate Map is built.
+     * Records annotated with {@code @NsonSerializable} use their generated,
+     * reflection-free codec instead. See {@link TypeBinder} for the
+     * supported member types.
+     *
+     * @param jsonStr A string containing raw JSON.
+     * @param type    The class to bind to, e.g. a record.
+     * @return The bound instance, or null for a JSON null.
+     * @throws JSONParseException   If the input string is malformed.
+     * @throws JSONBindingException If the JSON does not fit the type.
+     */
+    public <T> T loads(String jsonStr, Class<T> type) {
+        if (jsonStr == null) {
+            throw new JSONParseException("Failed to parse JSON string: null");
+        }
+        try (JSONReader reader = new JSONReader(jsonStr, options)) {
+            T value = TypeBinder.read(reader, type);
+            reader.peek(); // rejects trailing content
+            return value;
+        }
+    }
+
+    /**
+     * Parses a raw JSON string whose root is an array.
+     * <p>
+     * Inputs of at least {@link ParseOptions#parallelThreshold()} characters
+     * are split at their top-level commas by {@link ParallelArrayParser} and
+     * the elements are parsed in parallel; smaller ones by {@link JSONParser}.
+     *
+     * @param jsonStr A string containing a raw JSON array.
+     * @return A List holding the elements of the root array, in order.
+     * @throws JSONParseException If the input string is malformed.
+     */
+    public List<Object> loadsList(String jsonStr) {
+        try {
+            if (jsonStr.length() >= options.parallelThreshold()) {
+                return ParallelArrayParser.parse(jsonStr, options);
+            }
+            return JSONParser.parseArray(jsonStr, options);
+        } catch (JSONParseException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new JSONParseException("Failed to parse JSON string.");
+        }
+    }
+
+    /**
+     * Parses a raw JSON string into a lazy, read-only Map view.
+     * <p>
+     * Only a compact structural index ({@link JSONTape}) is built up front.
+     * Nested Maps, Lists and Strings are materialized when they are first
+     * accessed, so reading a few fields from a large payload costs little
+     * more than one scan of the input.
+     *
+     * @param jsonStr A string containing raw JSON with an object at its root.
+     * @return A lazy Map view of the JSON object.
+     * @throws JSONParseException If the input is structurally malformed.
+     *                            Malformed scalars are reported when read.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> loadsLazy(String jsonStr) {
+        if (jsonStr == null) {
+            throw new JSONParseException("Failed to parse JSON string: null");
+        }
+        Object root = JSONTape.build(jsonStr, options).root();
+        if (!(root instanceof Map)) {
+            throw new JSONParseException("Expected '{' at document root");
         }
+        return (Map<String, Object>) root;
+    }
+
+    /**
+     * Reads a newline-delimited JSON (NDJSON / JSON Lines) file as a stream
+     * of records.
+     * <p>
+     * The file is memory-mapped and cut into chunks at line boundaries,
+     * which are parsed in parallel on the common ForkJoinPool by
+     * {@link NDJSONReader}. Records are delivered in file order. Use
+     * {@link NDJSONReader} directly for unordered delivery, concatenated
+     * JSON or a different pool.
+     *
+     * @param file_object The NDJSON file; every record must be an object.
+     * @return A stream of records, to be closed by the caller.
+     * @throws JSONFileException  If the file is missing or unreadable.
+     * @throws JSONParseException From the stream, if a record is malformed.
+     */
+    public Stream<Map<String, Object>> loadLines(File file_object) {
+        if (file_object == null || !file_object.exists() || !file_object.isFile()) {
+            throw new JSONFileException("Invalid file path or file does not exist: " + file_object);
+        }
+        try {
+            return NDJSONReader.open(file_object.toPath()).withOptions(options).stream();
+        } catch (IOException e) {
+            throw new JSONFileException("Failed to read file: " + file_object.getPath());
+        }
+    }
+
+    /**
+     * Loads and parses many JSON files concurrently, each like
+     * {@link #load(File)}, with up to {@link BulkLoader#DEFAULT_CONCURRENCY}
+     * files in flight.
+     *
+     * @see #loadAll(Collection, int)
+     */
+    public Stream<BulkLoader.Result> loadAll(Collection<Path> paths) {
+        return loadAll(paths, BulkLoader.DEFAULT_CONCURRENCY);
+    }
+
+    /**
+     * Loads and parses many JSON files concurrently on virtual threads, at
+     * most {@code maxConcurrency} at a time.
+     * <p>
+     * Results are streamed in completion order, not in the order of
+     * {@code paths}. A file that is missing or malformed yields a result
+     * holding its {@link JSONFileException} or {@link JSONParseException};
+     * the other files are still loaded. A configured {@link DocumentCache}
+     * is used for every file.
+     *
+     * @param paths          The files to load.
+     * @param maxConcurrency The maximum number of files read at once.
+     * @return A stream with one result per path, to be closed by the caller.
+     */
+    public Stream<BulkLoader.Result> loadAll(Collection<Path> paths, int maxConcurrency) {
+        return new BulkLoader(maxConcurrency).load(paths, path -> load(path.toFile()));
     }
 
     /**
      * Serializes a Map object and writes it to a file as JSON.
      * Equivalent to Python’s {@code json.dump()}.
+     * <p>
+     * The document is encoded to UTF-8 on the fly and streamed to the file
+     * through a reusable direct buffer, so it is never held in memory as a
+     * whole. It is written to a temporary file that is forced to disk and
+     * then atomically renamed over {@code file_object}; readers never see a
+     * half-written file. An existing file keeps its permissions, and its
+     * owner and group where the process may set them; a new file gets the
+     * permissions the umask allows. If {@code file_object} is a symbolic
+     * link, the file it points to is replaced.
      *
      * @param data        The Map to be serialized.
      * @param file_object The file to write the JSON output to.
@@ -85,38 +431,102 @@ public class NSON implements JSON {
      */
     @Override
     public void dump(Map<String, Object> data, File file_object, int indent) {
-        throw new UnsupportedOperationException("Not supported yet.");
+        if (file_object == null) {
+            throw new JSONFileException("Invalid file path: null");
+        }
+
+        Probe probe = Probe.begin(metrics, Operation.DUMP);
+        boolean success = false;
+        try {
+            // Encode straight into the file channel, then swap the file in atomically
+            AtomicFile.write(file_object.toPath(), channel -> {
+                Utf8ChannelWriter writer = new Utf8ChannelWriter(channel);
+                new JSONWriter(writer, indent, false).write(data);
+                writer.finish();
+            });
+            success = true;
+        } catch (IOException e) {
+            throw new JSONFileException("Failed to write file: " + file_object.getPath() + " (" + e.getMessage() + ")");
+        } finally {
+            probe.end(success && probe.isActive() ? file_object.length() : -1, data, success);
+        }
     }
 
     /**
-     * Converts a Map into a JSON-formatted string.
-     * Equivalent to Python’s {@code json.dumps()}.
+     * Serializes a Map in the compact binary NSON encoding and writes it to
+     * a file, replacing it atomically like {@link #dump(Map, File, int)}.
+     * <p>
+     * The binary form stores numbers as varints and raw IEEE doubles and
+     * each distinct key once, so it is smaller than the text and needs no
+     * number formatting or parsing. Read it back with
+     * {@link #loadBinary(File)}.
      *
-     * @param data   The Map to convert to JSON.
-     * @param indent Indentation level for formatting (0 = compact).
-     * @param sort   Whether to sort keys alphabetically.
-     * @return A JSON string representing the input map.
+     * @param data        The Map to be serialized.
+     * @param file_object The file to write the binary output to.
+     * @throws JSONFileException       If file writing fails.
+     * @throws JSONValidationException If a value cannot be encoded.
      */
-    @Override
-    public String dumps(Map<String, Object> data, int indent, boolean sort) {
-        return toJsonString(data, indent, 0);
+    public void dumpBinary(Map<String, Object> data, File file_object) {
+        if (file_object == null) {
+            throw new JSONFileException("Invalid file path: null");
+        }
+
+        try {
+            AtomicFile.write(file_object.toPath(), channel -> BinaryEncoder.encode(data, channel));
+        } catch (IOException e) {
+            throw new JSONFileException("Failed to write file: " + file_object.getPath() + " (" + e.getMessage() + ")");
+        }
     }
 
     /**
-     * Converts a Java Map object (representing a JSON structure) into a valid JSON
-     * string.
+     * Loads a file written by {@link #dumpBinary(Map, File)}. The result is
+     * equal to what {@link #load(File)} returns for the same data in text
+     * form.
+     *
+     * @param file_object The file object pointing to a binary NSON file.
+     * @return A Map representing the document.
+     * @throws JSONFileException  If the file is missing or unreadable.
+     * @throws JSONParseException If the file is not valid binary NSON.
+     */
+    public Map<String, Object> loadBinary(File file_object) {
+        if (file_object == null || !file_object.exists() || !file_object.isFile()) {
+            throw new JSONFileException("Invalid file path or file does not exist: " + file_object);
+        }
+
+        try {
+            return BinaryDecoder.decodeObject(Files.readAllBytes(file_object.toPath()));
+        } catch (IOException e) {
+            throw new JSONFileException("Failed to read file: " + file_object.getPath());
+        }
+    }
+
+    /**
+     * Converts a Map into the binary NSON encoding.
+     *
+     * @param data The Map to convert.
+     * @return The encoded document.
+     * @throws JSONValidationException If a value cannot be encoded.
+     */
+    public byte[] dumpsBinary(Map<String, Object> data) {
+        return BinaryEncoder.encode(data);
+    }
+
+    /**
+     * Decodes a document produced by {@link #dumpsBinary(Map)}.
+     *
+     * @param bytes The encoded document.
+     * @return A Map representing the document.
+     * @throws JSONParseException If the bytes are not valid binary NSON.
+     */
+    public Map<String, Object> loadsBinary(byte[] bytes) {
+        return BinaryDecoder.decodeObject(bytes);
+    }
+
+    /**
+     * Converts a Map into a JSON-formatted string.
+     * Equivalent to Python’s {@code json.dumps()}.
      * <p>
-     * This method performs serialization of complex nested structures such as:
-     * <ul>
-     * <li>Primitive key-value pairs</li>
-     * <li>Nested objects (Map within Map)</li>
-     * <li>Arrays (Lists of any supported type)</li>
-     * </ul>
-     *
-     * It supports pretty-printing by using indentation for nested elements. The
-     * result is
-     * a well-formatted, human-readable JSON string. For compact output, pass
-     * <code>indent = 0</code>.
+     * Serialization is done in a single pass by {@link JSONWriter}.
      *
      * <h3>Examples:</h3>
      * Given input:
@@ -141,60 +551,68 @@ public class NSON implements JSON {
      * }
      * </pre>
      *
-     * @param data   The Map representing the JSON structure to serialize.
-     * @param indent Number of spaces used per indentation level. If 0, returns
-     *               compact JSON.
-     * @param sort   (Currently ignored) When implemented, will sort keys
-     *               alphabetically if true.
-     * @return A string containing valid JSON representation of the input data.
-     * @throws NullPointerException if the input map is null.
-     */
-
-    private String toJsonString(Object obj, int indent, int level) {
-        String pad = " ".repeat(indent * level);
-        String padNext = " ".repeat(indent * (level + 1));
-
-        if (obj instanceof Map<?, ?> map) {
-            StringBuilder sb = new StringBuilder("{\n");
-            List<String> entries = new ArrayList<>();
-            for (Map.Entry<?, ?> entry : map.entrySet()) {
-                String key = "\"" + entry.getKey() + "\"";
-                String value = toJsonString(entry.getValue(), indent, level + 1);
-                entries.add(padNext + key + ": " + value);
-            }
-            sb.append(String.join(",\n", entries));
-            sb.append("\n").append(pad).append("}");
-            return sb.toString();
-
-        } else if (obj instanceof List<?> list) {
-            StringBuilder sb = new StringBuilder("[\n");
-            List<String> items = new ArrayList<>();
-            for (Object item : list) {
-                items.add(padNext + toJsonString(item, indent, level + 1));
-            }
-            sb.append(String.join(",\n", items));
-            sb.append("\n").append(pad).append("]");
-            return sb.toString();
+     * and <code>dumps(data, 0, true)</code> will output:
+     *
+     * <pre>
+     * {"age":20,"languages":["Java","Python"],"name":"Nikhil"}
+     * </pre>
+     *
+     * @param data   The Map to convert to JSON.
+     * @param indent Number of spaces per indentation level (0 = compact, no whitespace).
+     * @param sort   Whether to sort keys alphabetically.
+     * @return A JSON string representing the input map.
+     */
+    @Override
+    public String dumps(Map<String, Object> data, int indent, boolean sort) {
+        return dumpsObserved(data, indent, sort);
+    }
 
-        } else if (obj instanceof String str) {
-            return "\"" + str.replace("\"", "\\\"") + "\"";
+    /**
+     * Converts any supported value into a compact JSON string: Maps,
+     * Collections, arrays and scalars as usual, and records and POJOs
+     * member by member through their {@link ClassCodec}.
+     *
+     * @param value The value to convert.
+     * @return A JSON string representing the value.
+     * @throws JSONBindingException    If a class cannot be introspected.
+     * @throws JSONValidationException If a value cannot be represented.
+     */
+    public String dumps(Object value) {
+        return dumpsObserved(value, 0, false);
+    }
 
-        } else {
-            return String.valueOf(obj); // number, boolean, null
+    private String dumpsObserved(Object value, int indent, boolean sort) {
+        Probe probe = Probe.begin(metrics, Operation.DUMPS);
+        String json = null;
+        try {
+            json = JSONWriter.toJson(value, indent, sort);
+            return json;
+        } finally {
+            probe.end(json == null ? -1 : json.length(), value, json != null);
         }
     }
 
     /**
      * Validates whether the provided string is syntactically correct JSON.
-     * Uses bracket and quote balancing checks via {@link SymbolBalancer}.
+     * Checks the full grammar in a single allocation-free pass via
+     * {@link JSONValidator}; use {@link JSONValidator#validate} to also get
+     * the offset of the first error.
      *
      * @param jsonStr The JSON string to validate.
      * @return {@code true} if valid, {@code false} otherwise.
      */
     @Override
     public boolean isValidJSON(String jsonStr) {
-        if (jsonStr == null || jsonStr.isBlank())
+        if (jsonStr == null)
             return false;
-        return SymbolBalancer.isFullyBalanced(jsonStr);
+        Probe probe = Probe.begin(metrics, Operation.VALIDATE);
+        boolean valid = false;
+        try {
+            valid = JSONValidator.isValid(jsonStr);
+            return valid;
+        } finally {
+            // An invalid document is a successful validation; there is no tree to measure
+            probe.end(jsonStr.length(), null, true);
+        }
     }
 }
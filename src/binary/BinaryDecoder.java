@@ -0,0 +1,289 @@
+package src.binary;
+
+import static src.binary.BinaryFormat.ARRAY;
+import static src.binary.BinaryFormat.BIG_DECIMAL;
+import static src.binary.BinaryFormat.BIG_INTEGER;
+import static src.binary.BinaryFormat.DOUBLE;
+import static src.binary.BinaryFormat.FALSE;
+import static src.binary.BinaryFormat.INT;
+import static src.binary.BinaryFormat.MAGIC;
+import static src.binary.BinaryFormat.NULL;
+import static src.binary.BinaryFormat.OBJECT;
+import static src.binary.BinaryFormat.STRING;
+import static src.binary.BinaryFormat.TRUE;
+import static src.binary.BinaryFormat.VERSION;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import src.exception.JSONParseException;
+import src.parser.JSONParser;
+
+/**
+ * =============================================================================
+ * BinaryDecoder.java
+ * =============================================================================
+ *
+ * Reads a document in the binary NSON encoding described in
+ * {@link BinaryFormat} back into the same tree the text parsers build:
+ * HashMaps, ArrayLists, Strings, Longs, Doubles, BigIntegers, BigDecimals,
+ * Booleans and null.
+ *
+ * Containers are allocated at their final size, since the encoding stores
+ * element counts up front. Every distinct key is decoded once and the same
+ * String instance is shared by all objects of the document.
+ *
+ * Corrupt or truncated input is reported as a {@link JSONParseException}
+ * with the byte offset of the problem; lengths and counts are checked
+ * against the remaining input before anything is allocated.
+ *
+ * EXAMPLE USAGE:
+ * --------------
+ * Map<String, Object> map = BinaryDecoder.decodeObject(bytes);
+ *
+ * =============================================================================
+ */
+public final class BinaryDecoder {
+
+    private final byte[] in;
+    private int pos;
+    private String[] keys = new String[16];
+    private int keyCount;
+
+    private BinaryDecoder(byte[] in) {
+        this.in = in;
+    }
+
+    /**
+     * Decodes a whole document.
+     *
+     * @throws JSONParseException If the input is not valid binary NSON.
+     */
+    public static Object decode(byte[] in) {
+        BinaryDecoder decoder = new BinaryDecoder(in);
+        decoder.readHeader();
+        Object value = decoder.readValue(0);
+        if (decoder.pos != in.length) {
+            throw decoder.error("Unexpected trailing bytes");
+        }
+        return value;
+    }
+
+    /**
+     * Decodes a document whose root must be an object.
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> decodeObject(byte[] in) {
+        if (in.length <= MAGIC.length + 1 || in[MAGIC.length + 1] != OBJECT) {
+            throw new JSONParseException("Expected an object at binary document root");
+        }
+        return (Map<String, Object>) decode(in);
+    }
+
+    /**
+     * Tells whether {@code in} starts with the binary NSON magic bytes.
+     */
+    public static boolean isBinary(byte[] in) {
+        if (in.length < MAGIC.length) {
+            return false;
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (in[i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ------------------------------------------------------------------------
+    // 1. --------------------------- Values ----------------------------------
+    // ------------------------------------------------------------------------
+
+    private void readHeader() {
+        if (!isBinary(in)) {
+            throw error("Missing binary NSON header");
+        }
+        pos = MAGIC.length;
+        byte version = next();
+        if (version != VERSION) {
+            pos--;
+            throw error("Unsupported binary NSON version " + version);
+        }
+    }
+
+    private Object readValue(int depth) {
+        byte tag = next();
+        switch (tag) {
+            case NULL:
+                return null;
+            case FALSE:
+                return Boolean.FALSE;
+            case TRUE:
+                return Boolean.TRUE;
+            case INT: {
+                long n = readVarint();
+                return (n >>> 1) ^ -(n & 1);
+            }
+            case DOUBLE:
+                return Double.longBitsToDouble(readLong());
+            case STRING:
+                return readUtf8(readLength());
+            case BIG_INTEGER:
+                return readBigInteger();
+            case BIG_DECIMAL: {
+                long n = readVarint();
+                long scale = (n >>> 1) ^ -(n & 1);
+                if (scale != (int) scale) {
+                    throw error("Invalid decimal scale " + scale);
+                }
+                return new BigDecimal(readBigInteger(), (int) scale);
+            }
+            case ARRAY:
+                return readArray(depth);
+            case OBJECT:
+                return readObject(depth);
+            default:
+                pos--;
+                throw error("Unknown tag " + tag);
+        }
+    }
+
+    private List<Object> readArray(int depth) {
+        checkDepth(depth);
+        int count = readCount();
+        List<Object> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(readValue(depth + 1));
+        }
+        return list;
+    }
+
+    private Map<String, Object> readObject(int depth) {
+        checkDepth(depth);
+        int count = readCount();
+        Map<String, Object> map = new HashMap<>(Math.max((int) (count / 0.75f) + 1, 16));
+        for (int i = 0; i < count; i++) {
+            String key = readKey();
+            map.put(key, readValue(depth + 1));
+        }
+        return map;
+    }
+
+    private String readKey() {
+        int start = pos;
+        long n = readVarint();
+        if ((n & 1) == 0) {
+            long index = n >>> 1;
+            if (index >= keyCount) {
+                pos = start;
+                throw error("Unknown key reference " + index);
+            }
+            return keys[(int) index];
+        }
+        String key = readUtf8(checkLength(n >>> 1, start, "Key length"));
+        if (keyCount == keys.length) {
+            keys = Arrays.copyOf(keys, keyCount * 2);
+        }
+        keys[keyCount++] = key;
+        return key;
+    }
+
+    private BigInteger readBigInteger() {
+        int length = readLength();
+        if (length == 0) {
+            throw error("Empty big integer");
+        }
+        BigInteger value = new BigInteger(in, pos, length);
+        pos += length;
+        return value;
+    }
+
+    /** Decodes UTF-8, copying pure ASCII runs without a decoder. */
+    private String readUtf8(int length) {
+        int end = pos + length;
+        for (int i = pos; i < end; i++) {
+            if (in[i] < 0) {
+                String str = new String(in, pos, length, StandardCharsets.UTF_8);
+                pos = end;
+                return str;
+            }
+        }
+        String str = new String(in, pos, length, StandardCharsets.ISO_8859_1);
+        pos = end;
+        return str;
+    }
+
+    // ------------------------------------------------------------------------
+    // 2. --------------------------- Helpers ---------------------------------
+    // ------------------------------------------------------------------------
+
+    private byte next() {
+        if (pos >= in.length) {
+            throw error("Unexpected end of input");
+        }
+        return in[pos++];
+    }
+
+    private long readVarint() {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = next();
+            result |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw error("Malformed varint");
+    }
+
+    private long readLong() {
+        if (in.length - pos < 8) {
+            throw error("Unexpected end of input");
+        }
+        long v = 0;
+        for (int i = 0; i < 8; i++) {
+            v |= (in[pos++] & 0xFFL) << (i << 3);
+        }
+        return v;
+    }
+
+    /** A byte length, which must fit in the remaining input. */
+    private int readLength() {
+        int start = pos;
+        return checkLength(readVarint(), start, "Length");
+    }
+
+    /**
+     * Returns {@code length} if that many bytes remain. A varint of ten
+     * bytes decodes to a negative long, which is rejected as well; the
+     * error reports the offset of the varint at {@code start}.
+     */
+    private int checkLength(long length, int start, String what) {
+        if (length < 0 || length > in.length - pos) {
+            pos = start;
+            throw error(what + " " + Long.toUnsignedString(length) + " exceeds input");
+        }
+        return (int) length;
+    }
+
+    /** An element count; every element takes at least one byte. */
+    private int readCount() {
+        return readLength();
+    }
+
+    private void checkDepth(int depth) {
+        if (depth >= JSONParser.MAX_DEPTH) {
+            throw error("Maximum nesting depth of " + JSONParser.MAX_DEPTH + " exceeded");
+        }
+    }
+
+    private JSONParseException error(String message) {
+        return new JSONParseException(message + " at byte offset " + pos);
+    }
+}
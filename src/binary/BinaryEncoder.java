@@ -0,0 +1,269 @@
+package src.binary;
+
+import static src.binary.BinaryFormat.ARRAY;
+import static src.binary.BinaryFormat.BIG_DECIMAL;
+import static src.binary.BinaryFormat.BIG_INTEGER;
+import static src.binary.BinaryFormat.DOUBLE;
+import static src.binary.BinaryFormat.FALSE;
+import static src.binary.BinaryFormat.INT;
+import static src.binary.BinaryFormat.MAGIC;
+import static src.binary.BinaryFormat.NULL;
+import static src.binary.BinaryFormat.OBJECT;
+import static src.binary.BinaryFormat.STRING;
+import static src.binary.BinaryFormat.TRUE;
+import static src.binary.BinaryFormat.VERSION;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import src.exception.JSONValidationException;
+import src.parser.JSONParser;
+import src.parser.LazyNumber;
+
+/**
+ * =============================================================================
+ * BinaryEncoder.java
+ * =============================================================================
+ *
+ * Writes a Map/List tree in the binary NSON encoding described in
+ * {@link BinaryFormat}.
+ *
+ * The encoding is built in one pass into a growable byte array. Integers
+ * are zigzag varints, doubles are copied as raw IEEE bits without any
+ * formatting, and object keys are written once per document and referred
+ * to by index afterwards.
+ *
+ * Supported values are the ones the parsers produce (Maps, Lists, Strings,
+ * Longs, Doubles, BigIntegers, BigDecimals, Booleans and null) plus any
+ * other Collection, array, integral Number, Float and enum. Floats are
+ * widened to doubles and enums are written by name, so they decode as a
+ * Double and a String.
+ *
+ * EXAMPLE USAGE:
+ * --------------
+ * byte[] bytes = BinaryEncoder.encode(map);
+ *
+ * =============================================================================
+ */
+public final class BinaryEncoder {
+
+    private static final int ASCII_LIMIT = 0x80;
+
+    private byte[] buf = new byte[256];
+    private int size;
+    private final Map<String, Integer> keys = new HashMap<>();
+
+    private BinaryEncoder() {
+    }
+
+    /**
+     * Encodes {@code value} into a new byte array.
+     *
+     * @throws JSONValidationException If the tree holds an unsupported value
+     *                                 or a non-finite double.
+     */
+    public static byte[] encode(Object value) {
+        BinaryEncoder encoder = new BinaryEncoder();
+        encoder.writeHeader();
+        encoder.writeValue(value, 0);
+        return Arrays.copyOf(encoder.buf, encoder.size);
+    }
+
+    /**
+     * Encodes {@code value} and writes it to {@code channel}.
+     */
+    public static void encode(Object value, WritableByteChannel channel) throws IOException {
+        BinaryEncoder encoder = new BinaryEncoder();
+        encoder.writeHeader();
+        encoder.writeValue(value, 0);
+        ByteBuffer out = ByteBuffer.wrap(encoder.buf, 0, encoder.size);
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // 1. --------------------------- Values ----------------------------------
+    // ------------------------------------------------------------------------
+
+    private void writeHeader() {
+        for (byte b : MAGIC) {
+            put(b);
+        }
+        put(VERSION);
+    }
+
+    private void writeValue(Object value, int depth) {
+        if (value == null) {
+            put(NULL);
+        } else if (value instanceof String str) {
+            put(STRING);
+            writeString(str);
+        } else if (value instanceof Map<?, ?> map) {
+            checkDepth(depth);
+            put(OBJECT);
+            writeVarint(map.size());
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeKey(String.valueOf(entry.getKey()));
+                writeValue(entry.getValue(), depth + 1);
+            }
+        } else if (value instanceof Collection<?> collection) {
+            checkDepth(depth);
+            put(ARRAY);
+            writeVarint(collection.size());
+            int written = 0;
+            for (Object item : collection) {
+                writeValue(item, depth + 1);
+                written++;
+            }
+            if (written != collection.size()) {
+                throw new JSONValidationException("Collection changed size while being encoded");
+            }
+        } else if (value instanceof Number number) {
+            writeNumber(number);
+        } else if (value instanceof Boolean bool) {
+            put(bool ? TRUE : FALSE);
+        } else if (value instanceof Enum<?> constant) {
+            put(STRING);
+            writeString(constant.name());
+        } else if (value.getClass().isArray()) {
+            checkDepth(depth);
+            int length = Array.getLength(value);
+            put(ARRAY);
+            writeVarint(length);
+            for (int i = 0; i < length; i++) {
+                writeValue(Array.get(value, i), depth + 1);
+            }
+        } else {
+            throw new JSONValidationException("Cannot encode " + value.getClass().getName() + " in binary NSON");
+        }
+    }
+
+    private void writeNumber(Number number) {
+        if (number instanceof LazyNumber lazy) {
+            number = lazy.value();
+        }
+        if (number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte) {
+            put(INT);
+            long n = number.longValue();
+            writeVarint((n << 1) ^ (n >> 63));
+        } else if (number instanceof Double || number instanceof Float) {
+            double d = number.doubleValue();
+            if (Double.isNaN(d) || Double.isInfinite(d)) {
+                throw new JSONValidationException("Out of range float values are not JSON compliant: " + d);
+            }
+            put(DOUBLE);
+            writeLong(Double.doubleToRawLongBits(d));
+        } else if (number instanceof BigInteger big) {
+            put(BIG_INTEGER);
+            writeBytes(big.toByteArray());
+        } else if (number instanceof BigDecimal decimal) {
+            put(BIG_DECIMAL);
+            long scale = decimal.scale();
+            writeVarint((scale << 1) ^ (scale >> 63));
+            writeBytes(decimal.unscaledValue().toByteArray());
+        } else {
+            throw new JSONValidationException("Cannot encode " + number.getClass().getName() + " in binary NSON");
+        }
+    }
+
+    private void writeKey(String key) {
+        Integer index = keys.get(key);
+        if (index != null) {
+            writeVarint((long) index << 1);
+            return;
+        }
+        keys.put(key, keys.size());
+        writeUtf8(key, true);
+    }
+
+    private void writeString(String str) {
+        writeUtf8(str, false);
+    }
+
+    /**
+     * Writes the UTF-8 length and bytes of {@code str}. For keys the length
+     * is shifted left with the low bit set, marking a new dictionary entry.
+     * ASCII strings, the common case, are copied without an encoder.
+     */
+    private void writeUtf8(String str, boolean key) {
+        int length = str.length();
+        boolean ascii = true;
+        for (int i = 0; i < length; i++) {
+            if (str.charAt(i) >= ASCII_LIMIT) {
+                ascii = false;
+                break;
+            }
+        }
+        if (ascii) {
+            writeVarint(key ? ((long) length << 1) | 1 : length);
+            ensure(length);
+            for (int i = 0; i < length; i++) {
+                buf[size++] = (byte) str.charAt(i);
+            }
+            return;
+        }
+        byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+        writeVarint(key ? ((long) bytes.length << 1) | 1 : bytes.length);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buf, size, bytes.length);
+        size += bytes.length;
+    }
+
+    // ------------------------------------------------------------------------
+    // 2. --------------------------- Helpers ---------------------------------
+    // ------------------------------------------------------------------------
+
+    private void writeBytes(byte[] bytes) {
+        writeVarint(bytes.length);
+        ensure(bytes.length);
+        System.arraycopy(bytes, 0, buf, size, bytes.length);
+        size += bytes.length;
+    }
+
+    private void writeVarint(long v) {
+        ensure(10);
+        while ((v & ~0x7FL) != 0) {
+            buf[size++] = (byte) ((v & 0x7F) | 0x80);
+            v >>>= 7;
+        }
+        buf[size++] = (byte) v;
+    }
+
+    private void writeLong(long v) {
+        ensure(8);
+        for (int i = 0; i < 8; i++) {
+            buf[size++] = (byte) (v >>> (i << 3));
+        }
+    }
+
+    private void put(byte b) {
+        ensure(1);
+        buf[size++] = b;
+    }
+
+    private void ensure(int extra) {
+        if (size + extra > buf.length) {
+            long needed = (long) size + extra;
+            if (needed > Integer.MAX_VALUE - 8) {
+                throw new JSONValidationException("Binary NSON document exceeds 2 GiB");
+            }
+            buf = Arrays.copyOf(buf, (int) Math.min(Math.max(needed, (long) buf.length << 1), Integer.MAX_VALUE - 8));
+        }
+    }
+
+    private static void checkDepth(int depth) {
+        if (depth >= JSONParser.MAX_DEPTH) {
+            throw new JSONValidationException("Maximum nesting depth of " + JSONParser.MAX_DEPTH + " exceeded (circular reference?)");
+        }
+    }
+}
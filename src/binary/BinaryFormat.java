@@ -0,0 +1,55 @@
+package src.binary;
+
+/**
+ * =============================================================================
+ * BinaryFormat.java
+ * =============================================================================
+ *
+ * Constants of the binary NSON encoding written by {@link BinaryEncoder}
+ * and read by {@link BinaryDecoder}.
+ *
+ * LAYOUT:
+ * -------
+ * A document is the magic bytes {@code 'N' 'S' 'B'}, a version byte, and
+ * one value. Every value starts with a one-byte tag:
+ *
+ * - {@code NULL}, {@code FALSE}, {@code TRUE}: no payload
+ * - {@code INT}:         zigzag varint
+ * - {@code DOUBLE}:      8 bytes, raw IEEE 754, little-endian
+ * - {@code STRING}:      varint byte length, UTF-8 bytes
+ * - {@code BIG_INTEGER}: varint byte length, two's-complement big-endian
+ * - {@code BIG_DECIMAL}: zigzag varint scale, then an unscaled BIG_INTEGER
+ *   payload
+ * - {@code ARRAY}:       varint count, then the elements
+ * - {@code OBJECT}:      varint count, then key and value pairs
+ *
+ * Keys go through a per-document dictionary. A key is one varint: an even
+ * value {@code 2i} refers to the {@code i}-th distinct key of the document,
+ * an odd value {@code 2n + 1} introduces a new key of {@code n} UTF-8 bytes
+ * that follow and appends it to the dictionary. Repeated keys, the usual
+ * case in arrays of records, therefore cost one or two bytes each.
+ *
+ * Varints are unsigned LEB128: seven bits per byte, least significant
+ * group first, high bit set on all but the last byte.
+ *
+ * =============================================================================
+ */
+final class BinaryFormat {
+
+    static final byte[] MAGIC = { 'N', 'S', 'B' };
+    static final byte VERSION = 1;
+
+    static final byte NULL = 0;
+    static final byte FALSE = 1;
+    static final byte TRUE = 2;
+    static final byte INT = 3;
+    static final byte DOUBLE = 4;
+    static final byte STRING = 5;
+    static final byte BIG_INTEGER = 6;
+    static final byte BIG_DECIMAL = 7;
+    static final byte ARRAY = 8;
+    static final byte OBJECT = 9;
+
+    private BinaryFormat() {
+    }
+}
@@ -0,0 +1,329 @@
+package src.binding;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import src.exception.JSONBindingException;
+import src.parser.JSONReader;
+import src.parser.JSONToken;
+
+/**
+ * =============================================================================
+ * ClassCodec.java
+ * =============================================================================
+ *
+ * Reads and writes one record or POJO class as a JSON object, without an
+ * intermediate {@code Map}.
+ *
+ * A codec is built once per class and cached in a {@link ClassValue}. It
+ * holds the JSON member names, their generic types, a {@link MethodHandle}
+ * per getter and setter, and a precomputed name-to-slot lookup, so binding
+ * a document costs one hash lookup and one handle call per member.
+ *
+ * WHAT IS BOUND:
+ * --------------
+ * - records: every component, constructed through the canonical constructor
+ * - other classes: every non-static, non-transient field, including
+ *   inherited ones; reading needs a no-argument constructor, writing only
+ *   the fields, so immutable classes with final fields are still written
+ *
+ * Classes from the {@code java.*}, {@code javax.*}, {@code jdk.*} and
+ * {@code sun.*} packages, interfaces, abstract classes and enums are not
+ * bound; {@link #isBindable(Class)} tells them apart.
+ *
+ * Unknown JSON members are skipped. Members missing from the JSON, or set
+ * to null, leave the field at its default value.
+ *
+ * EXAMPLE USAGE:
+ * --------------
+ * ClassCodec<User> codec = ClassCodec.of(User.class);
+ * User user = codec.read(reader);
+ *
+ * =============================================================================
+ */
+public final class ClassCodec<T> {
+
+    private static final ClassValue<ClassCodec<?>> CODECS = new ClassValue<>() {
+        @Override
+        protected ClassCodec<?> computeValue(Class<?> type) {
+            return new ClassCodec<>(type);
+        }
+    };
+
+    private static final MethodType GETTER = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private final Class<T> type;
+    private final String unbindableReason;
+    /** Why {@link #read} cannot create instances, or null. */
+    private String unreadableReason;
+
+    private String[] names;
+    private Type[] types;
+    private Class<?>[] rawTypes;
+    private MethodHandle[] getters;
+    private MethodHandle[] setters;
+    private Map<String, Integer> slots;
+    private int[] sortedSlots;
+
+    /** Records: {@code (Object[])Object}; other classes: {@code ()Object}. */
+    private MethodHandle constructor;
+    private Object[] defaults;
+
+    private ClassCodec(Class<T> type) {
+        this.type = type;
+        String reason = unbindableReason(type);
+        if (reason == null) {
+            // Recorded rather than thrown, so only of() fails
+            try {
+                if (type.isRecord()) {
+                    initRecord();
+                } else {
+                    initBean();
+                }
+                initLookup();
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                reason = e.getMessage() != null ? e.getMessage() : e.toString();
+            }
+        }
+        this.unbindableReason = reason;
+    }
+
+    /**
+     * Returns the cached codec for {@code type}.
+     *
+     * @throws JSONBindingException If the class cannot be bound.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ClassCodec<T> of(Class<T> type) {
+        ClassCodec<T> codec = (ClassCodec<T>) CODECS.get(type);
+        if (codec.unbindableReason != null) {
+            throw new JSONBindingException("Cannot bind " + type.getName() + ": " + codec.unbindableReason);
+        }
+        return codec;
+    }
+
+    /**
+     * Returns true if instances of {@code type} are written as JSON objects
+     * through a codec; reading them also needs a no-argument constructor
+     * for classes other than records. Never throws: a class that fails
+     * introspection, such as one redeclaring an inherited field, is simply
+     * not bindable.
+     */
+    public static boolean isBindable(Class<?> type) {
+        return CODECS.get(type).unbindableReason == null;
+    }
+
+    // ------------------------------------------------------------------------
+    // 1. ------------------------- Introspection -----------------------------
+    // ------------------------------------------------------------------------
+
+    private static String unbindableReason(Class<?> type) {
+        if (type.isPrimitive() || type.isArray() || type.isEnum()) {
+            return "not an object type";
+        }
+        if (type.isInterface() || Modifier.isAbstract(type.getModifiers())) {
+            return "interfaces and abstract classes cannot be instantiated";
+        }
+        String name = type.getName();
+        if (name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.") || name.startsWith("sun.")) {
+            return "platform classes are not bound";
+        }
+        return null;
+    }
+
+    private void initRecord() throws ReflectiveOperationException {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        RecordComponent[] components = type.getRecordComponents();
+        int n = components.length;
+        allocate(n);
+        Class<?>[] parameterTypes = new Class<?>[n];
+        for (int i = 0; i < n; i++) {
+            RecordComponent component = components[i];
+            names[i] = component.getName();
+            types[i] = component.getGenericType();
+            rawTypes[i] = component.getType();
+            parameterTypes[i] = component.getType();
+            component.getAccessor().setAccessible(true);
+            getters[i] = lookup.unreflect(component.getAccessor()).asType(GETTER);
+        }
+        Constructor<T> canonical = type.getDeclaredConstructor(parameterTypes);
+        canonical.setAccessible(true);
+        constructor = lookup.unreflectConstructor(canonical)
+            .asType(MethodType.genericMethodType(n))
+            .asSpreader(Object[].class, n);
+    }
+
+    private void initBean() throws ReflectiveOperationException {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        List<Field> fields = new ArrayList<>();
+        collectFields(type, fields);
+        int n = fields.size();
+        allocate(n);
+        for (int i = 0; i < n; i++) {
+            Field field = fields.get(i);
+            field.setAccessible(true);
+            names[i] = field.getName();
+            types[i] = field.getGenericType();
+            rawTypes[i] = field.getType();
+            getters[i] = lookup.unreflectGetter(field).asType(GETTER);
+        }
+
+        // Only reading needs the constructor and setters
+        Constructor<T> noArgs;
+        try {
+            noArgs = type.getDeclaredConstructor();
+        } catch (NoSuchMethodException e) {
+            unreadableReason = "no no-argument constructor";
+            return;
+        }
+        setters = new MethodHandle[n];
+        for (int i = 0; i < n; i++) {
+            setters[i] = lookup.unreflectSetter(fields.get(i)).asType(SETTER);
+        }
+        noArgs.setAccessible(true);
+        constructor = lookup.unreflectConstructor(noArgs).asType(MethodType.methodType(Object.class));
+    }
+
+    /** Superclass fields first, so members are written in a stable order. */
+    private static void collectFields(Class<?> type, List<Field> fields) {
+        if (type == null || type == Object.class) {
+            return;
+        }
+        collectFields(type.getSuperclass(), fields);
+        for (Field field : type.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+            if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()) {
+                fields.add(field);
+            }
+        }
+    }
+
+    private void allocate(int n) {
+        names = new String[n];
+        types = new Type[n];
+        rawTypes = new Class<?>[n];
+        getters = new MethodHandle[n];
+    }
+
+    private void initLookup() {
+        int n = names.length;
+        slots = new HashMap<>(n * 2);
+        defaults = new Object[n];
+        Integer[] order = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            if (slots.put(names[i], i) != null) {
+                throw new IllegalArgumentException("Duplicate member '" + names[i] + "' in " + type.getName());
+            }
+            defaults[i] = TypeBinder.defaultValue(rawTypes[i]);
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> names[a].compareTo(names[b]));
+        sortedSlots = new int[n];
+        for (int i = 0; i < n; i++) {
+            sortedSlots[i] = order[i];
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // 2. --------------------------- Reading ---------------------------------
+    // ------------------------------------------------------------------------
+
+    /**
+     * Reads the next value of {@code reader}, which must be an object or
+     * null, into a new instance.
+     *
+     * @throws JSONBindingException If the class has no no-argument
+     *                              constructor.
+     */
+    @SuppressWarnings("unchecked")
+    public T read(JSONReader reader) {
+        if (unreadableReason != null) {
+            throw new JSONBindingException("Cannot bind " + type.getName() + ": " + unreadableReason);
+        }
+        if (reader.peek() == JSONToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        reader.beginObject();
+        try {
+            if (setters == null) {
+                Object[] args = defaults.clone();
+                while (reader.hasNext()) {
+                    Integer slot = slots.get(reader.nextName());
+                    if (slot == null) {
+                        reader.skipValue();
+                        continue;
+                    }
+                    Object value = TypeBinder.read(reader, types[slot]);
+                    if (value != null) {
+                        args[slot] = value;
+                    }
+                }
+                reader.endObject();
+                return (T) (Object) constructor.invokeExact(args);
+            }
+
+            Object instance = (Object) constructor.invokeExact();
+            while (reader.hasNext()) {
+                Integer slot = slots.get(reader.nextName());
+                if (slot == null) {
+                    reader.skipValue();
+                    continue;
+                }
+                Object value = TypeBinder.read(reader, types[slot]);
+                if (value != null || !rawTypes[slot].isPrimitive()) {
+                    setters[slot].invokeExact(instance, value);
+                }
+            }
+            reader.endObject();
+            return (T) instance;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new JSONBindingException("Failed to construct " + type.getName() + ": " + e);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // 3. --------------------------- Writing ---------------------------------
+    // ------------------------------------------------------------------------
+
+    /** Number of members written for each instance. */
+    public int size() {
+        return names.length;
+    }
+
+    public String name(int slot) {
+        return names[slot];
+    }
+
+    /**
+     * Slot of the {@code index}-th member in natural name order, for sorted
+     * output.
+     */
+    public int sortedSlot(int index) {
+        return sortedSlots[index];
+    }
+
+    public Object get(Object instance, int slot) {
+        try {
+            return (Object) getters[slot].invokeExact(instance);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new JSONBindingException("Failed to read " + names[slot] + " of " + type.getName() + ": " + e);
+        }
+    }
+}
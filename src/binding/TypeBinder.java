@@ -0,0 +1,288 @@
+package src.binding;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import src.codegen.GeneratedCodec;
+import src.codegen.GeneratedCodecs;
+import src.exception.JSONBindingException;
+import src.parser.JSONReader;
+import src.parser.JSONToken;
+import src.parser.LazyNumber;
+
+/**
+ * =============================================================================
+ * TypeBinder.java
+ * =============================================================================
+ *
+ * Reads the next JSON value of a {@link JSONReader} as an instance of a
+ * given, possibly generic, Java type. This is the entry point of data
+ * binding behind {@code NSON.loads(String, Class)}.
+ *
+ * SUPPORTED TYPES:
+ * ----------------
+ * - String, char, boolean, all primitive numbers and their wrappers,
+ *   BigInteger and BigDecimal
+ * - enums, by constant name
+ * - arrays, Lists, Sets and Collections, using the declared element type
+ * - Maps with String keys, using the declared value type
+ * - Object and Number, read as an untyped tree like {@code NSON.loads()}
+ * - records and POJOs, through their compile-time {@link GeneratedCodec}
+ *   if one exists, or else their {@link ClassCodec}
+ *
+ * Integral targets only accept integral JSON numbers that fit; the value
+ * is never silently truncated.
+ *
+ * =============================================================================
+ */
+public final class TypeBinder {
+
+    private TypeBinder() {
+    }
+
+    /**
+     * Reads the next value as {@code type}.
+     *
+     * @throws JSONBindingException If the value does not fit the type.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T read(JSONReader reader, Class<T> type) {
+        return (T) read(reader, (Type) type);
+    }
+
+    /**
+     * Reads the next value as {@code type}, which may be parameterized, e.g.
+     * {@code List<User>}. Returns null for JSON null, whatever the type.
+     */
+    public static Object read(JSONReader reader, Type type) {
+        if (reader.peek() == JSONToken.NULL) {
+            reader.nextNull();
+            return null;
+        }
+        Class<?> raw = rawType(type);
+        if (raw == String.class) {
+            return reader.nextString();
+        }
+        if (raw == Object.class || raw == Number.class) {
+            return reader.readTree();
+        }
+        if (raw.isPrimitive() || Number.class.isAssignableFrom(raw) || raw == Boolean.class || raw == Character.class) {
+            return readScalar(reader, raw);
+        }
+        if (raw.isEnum()) {
+            return readEnum(reader, raw);
+        }
+        if (raw.isArray()) {
+            return readArray(reader, type, raw);
+        }
+        if (Collection.class.isAssignableFrom(raw)) {
+            return readCollection(reader, type, raw);
+        }
+        if (Map.class.isAssignableFrom(raw)) {
+            return readMap(reader, type, raw);
+        }
+        GeneratedCodec<?> generated = GeneratedCodecs.find(raw);
+        if (generated != null) {
+            return generated.read(reader);
+        }
+        return ClassCodec.of(raw).read(reader);
+    }
+
+    /** Zero value of a primitive type, or null for reference types. */
+    static Object defaultValue(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return null;
+        }
+        if (type == boolean.class) return Boolean.FALSE;
+        if (type == char.class) return '\0';
+        if (type == byte.class) return (byte) 0;
+        if (type == short.class) return (short) 0;
+        if (type == int.class) return 0;
+        if (type == long.class) return 0L;
+        if (type == float.class) return 0f;
+        return 0d;
+    }
+
+    // ------------------------------------------------------------------------
+    // 1. --------------------------- Scalars ---------------------------------
+    // ------------------------------------------------------------------------
+
+    private static Object readScalar(JSONReader reader, Class<?> raw) {
+        if (raw == boolean.class || raw == Boolean.class) {
+            return reader.nextBoolean();
+        }
+        if (raw == char.class || raw == Character.class) {
+            String text = reader.nextString();
+            if (text.length() != 1) {
+                throw new JSONBindingException("Expected a single character but was \"" + text + "\"");
+            }
+            return text.charAt(0);
+        }
+        if ((raw == BigDecimal.class || raw == BigInteger.class) && reader.peek() == JSONToken.NUMBER) {
+            // Built from the source digits, so precision and scale are kept
+            BigDecimal exact = new BigDecimal(reader.nextString());
+            return raw == BigDecimal.class ? exact : integral(exact).toBigInteger();
+        }
+        Number number = reader.nextNumber();
+        if (number instanceof LazyNumber lazy) {
+            number = lazy.value();
+        }
+        if (raw == double.class || raw == Double.class) return number.doubleValue();
+        if (raw == float.class || raw == Float.class) return number.floatValue();
+        if (raw == long.class || raw == Long.class) return fit(number, Long.MIN_VALUE, Long.MAX_VALUE, raw);
+        if (raw == int.class || raw == Integer.class) return (int) fit(number, Integer.MIN_VALUE, Integer.MAX_VALUE, raw);
+        if (raw == short.class || raw == Short.class) return (short) fit(number, Short.MIN_VALUE, Short.MAX_VALUE, raw);
+        if (raw == byte.class || raw == Byte.class) return (byte) fit(number, Byte.MIN_VALUE, Byte.MAX_VALUE, raw);
+        throw new JSONBindingException("Unsupported number type " + raw.getName());
+    }
+
+    private static BigDecimal integral(Number number) {
+        BigDecimal value = number instanceof BigDecimal decimal ? decimal
+            : number instanceof Long ? BigDecimal.valueOf(number.longValue())
+            : new BigDecimal(number.toString());
+        if (value.signum() != 0 && value.stripTrailingZeros().scale() > 0) {
+            throw new JSONBindingException("Expected an integer but was " + number);
+        }
+        return value;
+    }
+
+    private static long fit(Number number, long min, long max, Class<?> raw) {
+        if (number instanceof Long) {
+            long value = number.longValue();
+            if (value >= min && value <= max) {
+                return value;
+            }
+        } else {
+            BigDecimal value = integral(number);
+            if (value.compareTo(BigDecimal.valueOf(min)) >= 0 && value.compareTo(BigDecimal.valueOf(max)) <= 0) {
+                return value.longValue();
+            }
+        }
+        throw new JSONBindingException(number + " does not fit in " + raw.getSimpleName());
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    private static Object readEnum(JSONReader reader, Class<?> raw) {
+        String name = reader.nextString();
+        try {
+            return Enum.valueOf((Class) raw, name);
+        } catch (IllegalArgumentException e) {
+            throw new JSONBindingException("No constant \"" + name + "\" in " + raw.getName());
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // 2. ------------------------- Containers --------------------------------
+    // ------------------------------------------------------------------------
+
+    private static Object readArray(JSONReader reader, Type type, Class<?> raw) {
+        Type component = type instanceof GenericArrayType generic ? generic.getGenericComponentType() : raw.getComponentType();
+        List<Object> items = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            items.add(read(reader, component));
+        }
+        reader.endArray();
+        Class<?> componentClass = raw.getComponentType();
+        Object array = Array.newInstance(componentClass, items.size());
+        for (int i = 0; i < items.size(); i++) {
+            Object item = items.get(i);
+            if (item == null && componentClass.isPrimitive()) {
+                throw new JSONBindingException("null element in " + componentClass.getName() + "[]");
+            }
+            Array.set(array, i, item);
+        }
+        return array;
+    }
+
+    private static Object readCollection(JSONReader reader, Type type, Class<?> raw) {
+        Type element = typeArgument(type, 0);
+        Collection<Object> collection = newCollection(raw);
+        reader.beginArray();
+        while (reader.hasNext()) {
+            collection.add(read(reader, element));
+        }
+        reader.endArray();
+        return collection;
+    }
+
+    private static Object readMap(JSONReader reader, Type type, Class<?> raw) {
+        Class<?> key = rawType(typeArgument(type, 0));
+        if (key != String.class && key != Object.class) {
+            throw new JSONBindingException("Map keys must be Strings, not " + key.getName());
+        }
+        Type value = typeArgument(type, 1);
+        Map<String, Object> map = newMap(raw);
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            map.put(name, read(reader, value));
+        }
+        reader.endObject();
+        return map;
+    }
+
+    private static Collection<Object> newCollection(Class<?> raw) {
+        if (raw.isAssignableFrom(ArrayList.class)) return new ArrayList<>();
+        if (raw.isAssignableFrom(LinkedHashSet.class)) return new LinkedHashSet<>();
+        if (raw.isAssignableFrom(TreeSet.class) && SortedSet.class.isAssignableFrom(raw)) return new TreeSet<>();
+        throw new JSONBindingException("Unsupported collection type " + raw.getName());
+    }
+
+    private static Map<String, Object> newMap(Class<?> raw) {
+        if (raw.isAssignableFrom(HashMap.class)) return new HashMap<>();
+        if (raw.isAssignableFrom(LinkedHashMap.class)) return new LinkedHashMap<>();
+        if (raw.isAssignableFrom(TreeMap.class) && SortedMap.class.isAssignableFrom(raw)) return new TreeMap<>();
+        throw new JSONBindingException("Unsupported map type " + raw.getName());
+    }
+
+    // ------------------------------------------------------------------------
+    // 3. ---------------------------- Types ----------------------------------
+    // ------------------------------------------------------------------------
+
+    static Class<?> rawType(Type type) {
+        if (type instanceof Class<?> c) {
+            return c;
+        }
+        if (type instanceof ParameterizedType parameterized) {
+            return (Class<?>) parameterized.getRawType();
+        }
+        if (type instanceof GenericArrayType array) {
+            return Array.newInstance(rawType(array.getGenericComponentType()), 0).getClass();
+        }
+        if (type instanceof WildcardType wildcard) {
+            return rawType(wildcard.getUpperBounds()[0]);
+        }
+        if (type instanceof TypeVariable<?> variable) {
+            return rawType(variable.getBounds()[0]);
+        }
+        return Object.class;
+    }
+
+    private static Type typeArgument(Type type, int index) {
+        if (type instanceof ParameterizedType parameterized) {
+            Type[] arguments = parameterized.getActualTypeArguments();
+            if (index < arguments.length) {
+                return arguments[index];
+            }
+        }
+        return Object.class;
+    }
+}
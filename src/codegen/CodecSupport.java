@@ -0,0 +1,109 @@
+package src.codegen;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import src.exception.JSONBindingException;
+import src.parser.JSONReader;
+import src.parser.JSONToken;
+
+/**
+ * =============================================================================
+ * CodecSupport.java
+ * =============================================================================
+ *
+ * Small, non-reflective helpers called by generated codecs. Keeping them
+ * here keeps the generated sources short and their behaviour identical to
+ * the reflective binding in {@code src.binding}.
+ *
+ * =============================================================================
+ */
+public final class CodecSupport {
+
+    private CodecSupport() {
+    }
+
+    /**
+     * Consumes a JSON null if one is next and reports whether it did.
+     */
+    public static boolean isNull(JSONReader reader) {
+        if (reader.peek() == JSONToken.NULL) {
+            reader.nextNull();
+            return true;
+        }
+        return false;
+    }
+
+    public static String readString(JSONReader reader) {
+        return reader.nextString();
+    }
+
+    public static boolean readBoolean(JSONReader reader) {
+        return reader.nextBoolean();
+    }
+
+    public static long readLong(JSONReader reader) {
+        return reader.nextLong();
+    }
+
+    public static int readInt(JSONReader reader) {
+        return (int) readRange(reader, Integer.MIN_VALUE, Integer.MAX_VALUE, "int");
+    }
+
+    public static short readShort(JSONReader reader) {
+        return (short) readRange(reader, Short.MIN_VALUE, Short.MAX_VALUE, "short");
+    }
+
+    public static byte readByte(JSONReader reader) {
+        return (byte) readRange(reader, Byte.MIN_VALUE, Byte.MAX_VALUE, "byte");
+    }
+
+    public static double readDouble(JSONReader reader) {
+        return reader.nextDouble();
+    }
+
+    public static float readFloat(JSONReader reader) {
+        return (float) reader.nextDouble();
+    }
+
+    public static char readChar(JSONReader reader) {
+        String text = reader.nextString();
+        if (text.length() != 1) {
+            throw new JSONBindingException("Expected a single character but was \"" + text + "\"");
+        }
+        return text.charAt(0);
+    }
+
+    public static BigDecimal readBigDecimal(JSONReader reader) {
+        if (reader.peek() != JSONToken.NUMBER) {
+            reader.nextNumber(); // reports the mismatch
+        }
+        return new BigDecimal(reader.nextString());
+    }
+
+    public static BigInteger readBigInteger(JSONReader reader) {
+        BigDecimal value = readBigDecimal(reader);
+        try {
+            return value.toBigIntegerExact();
+        } catch (ArithmeticException e) {
+            throw new JSONBindingException("Expected an integer but was " + value);
+        }
+    }
+
+    public static <E extends Enum<E>> E readEnum(JSONReader reader, Class<E> type) {
+        String name = reader.nextString();
+        try {
+            return Enum.valueOf(type, name);
+        } catch (IllegalArgumentException e) {
+            throw new JSONBindingException("No constant \"" + name + "\" in " + type.getName());
+        }
+    }
+
+    private static long readRange(JSONReader reader, long min, long max, String type) {
+        long value = reader.nextLong();
+        if (value < min || value > max) {
+            throw new JSONBindingException(value + " does not fit in " + type);
+        }
+        return value;
+    }
+}
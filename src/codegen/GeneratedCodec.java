@@ -0,0 +1,28 @@
+package src.codegen;
+
+import java.io.IOException;
+
+import src.parser.JSONReader;
+
+/**
+ * Contract of the codecs written by {@link NsonSerializableProcessor}.
+ * Implementations are straight-line code: members are written and read in
+ * declaration order, without reflection or type dispatch.
+ */
+public interface GeneratedCodec<T> {
+
+    Class<T> type();
+
+    /**
+     * Hands every member of {@code value} to {@code out}, in declaration
+     * order.
+     */
+    void writeMembers(T value, MemberWriter out) throws IOException;
+
+    /**
+     * Reads the next value of {@code reader}, which must be an object, into
+     * a new instance. Unknown members are skipped; missing or null members
+     * keep their default value.
+     */
+    T read(JSONReader reader);
+}
@@ -0,0 +1,64 @@
+package src.codegen;
+
+/**
+ * =============================================================================
+ * GeneratedCodecs.java
+ * =============================================================================
+ *
+ * Finds the codec that {@link NsonSerializableProcessor} generated for a
+ * class, if any. The lookup follows the processor's naming rule, so it
+ * needs neither a registry nor runtime annotations: {@code com.acme.User}
+ * maps to {@code com.acme.UserNsonCodec} and {@code Outer.Inner} to
+ * {@code Outer_InnerNsonCodec}.
+ *
+ * Each class is looked up once; the answer, including "none", is cached in
+ * a {@link ClassValue}.
+ *
+ * =============================================================================
+ */
+public final class GeneratedCodecs {
+
+    /** Suffix appended to the class name by the processor. */
+    public static final String SUFFIX = "NsonCodec";
+
+    private static final ClassValue<GeneratedCodec<?>> CODECS = new ClassValue<>() {
+        @Override
+        protected GeneratedCodec<?> computeValue(Class<?> type) {
+            return load(type);
+        }
+    };
+
+    private GeneratedCodecs() {
+    }
+
+    /**
+     * Returns the generated codec for {@code type}, or null if none was
+     * generated.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> GeneratedCodec<T> find(Class<T> type) {
+        return (GeneratedCodec<T>) CODECS.get(type);
+    }
+
+    /** Name of the codec class generated for a class with this binary name. */
+    public static String codecName(String binaryName) {
+        int dot = binaryName.lastIndexOf('.');
+        return binaryName.substring(0, dot + 1) + binaryName.substring(dot + 1).replace('$', '_') + SUFFIX;
+    }
+
+    private static GeneratedCodec<?> load(Class<?> type) {
+        if (!type.isRecord() || type.getClassLoader() == null) {
+            return null;
+        }
+        try {
+            Class<?> codecClass = Class.forName(codecName(type.getName()), true, type.getClassLoader());
+            if (!GeneratedCodec.class.isAssignableFrom(codecClass)) {
+                return null;
+            }
+            GeneratedCodec<?> codec = (GeneratedCodec<?>) codecClass.getConstructor().newInstance();
+            return codec.type() == type ? codec : null;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
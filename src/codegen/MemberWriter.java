@@ -0,0 +1,23 @@
+package src.codegen;
+
+import java.io.IOException;
+
+/**
+ * Receives the members of an object from a {@link GeneratedCodec}. The
+ * primitive overloads let generated code write numbers and booleans
+ * without boxing them.
+ */
+public interface MemberWriter {
+
+    void member(String name, Object value) throws IOException;
+
+    void member(String name, String value) throws IOException;
+
+    void member(String name, long value) throws IOException;
+
+    void member(String name, float value) throws IOException;
+
+    void member(String name, double value) throws IOException;
+
+    void member(String name, boolean value) throws IOException;
+}
@@ -0,0 +1,23 @@
+package src.codegen;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a record for which {@link NsonSerializableProcessor} generates a
+ * reflection-free {@link GeneratedCodec} at compile time.
+ *
+ * For a record {@code com.acme.User} the processor writes
+ * {@code com.acme.UserNsonCodec}; nested records are named after their
+ * enclosing classes, e.g. {@code Outer_InnerNsonCodec}. Data binding and
+ * {@code NSON.dumps(Object)} pick the generated codec up automatically and
+ * fall back to the reflective {@code ClassCodec} for unannotated classes.
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface NsonSerializable {
+}
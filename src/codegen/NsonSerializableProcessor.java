@@ -0,0 +1,434 @@
+package src.codegen;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.Types;
+import javax.tools.Diagnostic;
+
+/**
+ * =============================================================================
+ * NsonSerializableProcessor.java
+ * =============================================================================
+ *
+ * Annotation processor that writes a {@link GeneratedCodec} for every
+ * record annotated with {@link NsonSerializable}.
+ *
+ * The generated class lives next to the record, so it can call
+ * package-private accessors and constructors. Its writer is one
+ * {@code out.member(...)} call per component, with primitives passed
+ * unboxed. Its reader is a {@code switch} over the member name that reads
+ * each component with a call fixed at compile time; Lists, Sets, Maps and
+ * arrays get a generated loop, and nested annotated records call their own
+ * generated codec. Only types the generator does not know fall back to the
+ * reflective {@code TypeBinder}.
+ *
+ * Generic records are rejected, as are private ones, since the generated
+ * code could not name them.
+ *
+ * USAGE:
+ * ------
+ * javac -processor src.codegen.NsonSerializableProcessor -cp nson.jar ...
+ *
+ * No service registration ships with the sources: the processor is
+ * compiled from the same tree it would otherwise be discovered in, so it
+ * is named explicitly.
+ *
+ * =============================================================================
+ */
+@SupportedAnnotationTypes("src.codegen.NsonSerializable")
+public final class NsonSerializableProcessor extends AbstractProcessor {
+
+    private static final String READER = "src.parser.JSONReader";
+    private static final String SUPPORT = "src.codegen.CodecSupport";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment round) {
+        for (Element element : round.getElementsAnnotatedWith(NsonSerializable.class)) {
+            if (element.getKind() != ElementKind.RECORD) {
+                error(element, "@NsonSerializable can only be applied to records");
+                continue;
+            }
+            TypeElement record = (TypeElement) element;
+            if (!record.getTypeParameters().isEmpty()) {
+                error(record, "@NsonSerializable does not support generic records");
+                continue;
+            }
+            if (!isAccessible(record)) {
+                error(record, "@NsonSerializable records must not be private");
+                continue;
+            }
+            try {
+                generate(record);
+            } catch (IOException e) {
+                error(record, "Failed to write codec: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    // ------------------------------------------------------------------------
+    // 1. -------------------------- Generation -------------------------------
+    // ------------------------------------------------------------------------
+
+    private void generate(TypeElement record) throws IOException {
+        PackageElement pkg = processingEnv.getElementUtils().getPackageOf(record);
+        String codecName = GeneratedCodecs.codecName(processingEnv.getElementUtils().getBinaryName(record).toString());
+        String simpleName = codecName.substring(codecName.lastIndexOf('.') + 1);
+        String recordName = record.getQualifiedName().toString();
+        List<? extends RecordComponentElement> components = record.getRecordComponents();
+
+        Source src = new Source(this);
+        if (!pkg.isUnnamed()) {
+            src.line("package " + pkg.getQualifiedName() + ";").line("");
+        }
+        src.line("/** Codec for {@link " + recordName + "}, generated by {@link " + NsonSerializableProcessor.class.getName() + "}; do not edit. */");
+        src.open("public final class " + simpleName + " implements src.codegen.GeneratedCodec<" + recordName + ">");
+        src.line("");
+        src.line("public static final " + simpleName + " INSTANCE = new " + simpleName + "();");
+        src.line("");
+
+        src.line("@Override");
+        src.open("public Class<" + recordName + "> type()");
+        src.line("return " + recordName + ".class;");
+        src.close();
+        src.line("");
+
+        src.line("@Override");
+        src.open("public void writeMembers(" + recordName + " value, src.codegen.MemberWriter out) throws java.io.IOException");
+        for (RecordComponentElement component : components) {
+            String name = component.getSimpleName().toString();
+            String get = "value." + component.getAccessor().getSimpleName() + "()";
+            if (component.asType().getKind() == TypeKind.CHAR) {
+                get = "String.valueOf(" + get + ")";
+            }
+            src.line("out.member(\"" + name + "\", " + get + ");");
+        }
+        src.close();
+        src.line("");
+
+        src.line("@Override");
+        src.line("@SuppressWarnings(\"unchecked\")");
+        src.open("public " + recordName + " read(" + READER + " reader)");
+        for (int i = 0; i < components.size(); i++) {
+            TypeMirror type = components.get(i).asType();
+            src.line(type + " v" + i + " = " + defaultValue(type) + ";");
+        }
+        src.line("reader.beginObject();");
+        src.open("while (reader.hasNext())");
+        src.open("switch (reader.nextName())");
+        for (int i = 0; i < components.size(); i++) {
+            RecordComponentElement component = components.get(i);
+            src.line("case \"" + component.getSimpleName() + "\":");
+            src.depth++;
+            src.open("if (!" + SUPPORT + ".isNull(reader))");
+            src.line("v" + i + " = " + src.read(component.asType(), component) + ";");
+            src.close();
+            src.line("break;");
+            src.depth--;
+        }
+        src.line("default:");
+        src.depth++;
+        src.line("reader.skipValue();");
+        src.depth--;
+        src.close();
+        src.close();
+        src.line("reader.endObject();");
+        StringBuilder args = new StringBuilder();
+        for (int i = 0; i < components.size(); i++) {
+            args.append(i == 0 ? "v" : ", v").append(i);
+        }
+        src.line("return new " + recordName + "(" + args + ");");
+        src.close();
+        src.helpers();
+        src.close();
+
+        try (Writer out = processingEnv.getFiler().createSourceFile(codecName, record).openWriter()) {
+            out.write(src.toString());
+        }
+    }
+
+    /**
+     * Generated source under construction. Container types are read by
+     * private helper methods, which are appended after the main class body.
+     */
+    private static final class Source {
+
+        private final NsonSerializableProcessor processor;
+        private final StringBuilder out = new StringBuilder();
+        private final StringBuilder helpers = new StringBuilder();
+        private int depth;
+        private int helperCount;
+
+        Source(NsonSerializableProcessor processor) {
+            this.processor = processor;
+        }
+
+        Source line(String text) {
+            if (!text.isEmpty()) {
+                out.append("    ".repeat(depth)).append(text);
+            }
+            out.append('\n');
+            return this;
+        }
+
+        void open(String text) {
+            line(text + " {");
+            depth++;
+        }
+
+        void close() {
+            depth--;
+            line("}");
+        }
+
+        void helpers() {
+            out.append(helpers);
+        }
+
+        /**
+         * Expression that reads a non-null value of {@code type} from
+         * {@code reader}.
+         */
+        String read(TypeMirror type, Element site) {
+            switch (type.getKind()) {
+                case BOOLEAN: return SUPPORT + ".readBoolean(reader)";
+                case BYTE:    return SUPPORT + ".readByte(reader)";
+                case SHORT:   return SUPPORT + ".readShort(reader)";
+                case INT:     return SUPPORT + ".readInt(reader)";
+                case LONG:    return SUPPORT + ".readLong(reader)";
+                case CHAR:    return SUPPORT + ".readChar(reader)";
+                case FLOAT:   return SUPPORT + ".readFloat(reader)";
+                case DOUBLE:  return SUPPORT + ".readDouble(reader)";
+                case ARRAY:   return helper(readArray((ArrayType) type, site), type.toString());
+                case DECLARED: break;
+                default:      return fallback(type);
+            }
+            DeclaredType declared = (DeclaredType) type;
+            TypeElement element = (TypeElement) declared.asElement();
+            switch (element.getQualifiedName().toString()) {
+                case "java.lang.String":     return SUPPORT + ".readString(reader)";
+                case "java.lang.Boolean":    return SUPPORT + ".readBoolean(reader)";
+                case "java.lang.Byte":       return SUPPORT + ".readByte(reader)";
+                case "java.lang.Short":      return SUPPORT + ".readShort(reader)";
+                case "java.lang.Integer":    return SUPPORT + ".readInt(reader)";
+                case "java.lang.Long":       return SUPPORT + ".readLong(reader)";
+                case "java.lang.Character":  return SUPPORT + ".readChar(reader)";
+                case "java.lang.Float":      return SUPPORT + ".readFloat(reader)";
+                case "java.lang.Double":     return SUPPORT + ".readDouble(reader)";
+                case "java.math.BigDecimal": return SUPPORT + ".readBigDecimal(reader)";
+                case "java.math.BigInteger": return SUPPORT + ".readBigInteger(reader)";
+                case "java.lang.Object":     return "reader.readTree()";
+                case "java.lang.Iterable":
+                case "java.util.Collection":
+                case "java.util.List":
+                case "java.util.ArrayList":
+                    return readCollection(declared, "java.util.ArrayList", site);
+                case "java.util.Set":
+                case "java.util.HashSet":
+                case "java.util.LinkedHashSet":
+                    return readCollection(declared, "java.util.LinkedHashSet", site);
+                case "java.util.SortedSet":
+                case "java.util.NavigableSet":
+                case "java.util.TreeSet":
+                    return readCollection(declared, "java.util.TreeSet", site);
+                case "java.util.Map":
+                case "java.util.HashMap":
+                    return readMap(declared, "java.util.HashMap", site);
+                case "java.util.LinkedHashMap":
+                    return readMap(declared, "java.util.LinkedHashMap", site);
+                case "java.util.SortedMap":
+                case "java.util.NavigableMap":
+                case "java.util.TreeMap":
+                    return readMap(declared, "java.util.TreeMap", site);
+                default:
+                    break;
+            }
+            if (element.getKind() == ElementKind.ENUM) {
+                return SUPPORT + ".readEnum(reader, " + element.getQualifiedName() + ".class)";
+            }
+            if (element.getKind() == ElementKind.RECORD && element.getAnnotation(NsonSerializable.class) != null
+                    && element.getTypeParameters().isEmpty()) {
+                String codec = GeneratedCodecs.codecName(
+                    processor.processingEnv.getElementUtils().getBinaryName(element).toString());
+                return codec + ".INSTANCE.read(reader)";
+            }
+            return fallback(type);
+        }
+
+        /**
+         * Reads a type the generator has no code for through reflection. The
+         * read already returns the erasure, so only generic types and type
+         * variables are cast (unchecked) to the declared type.
+         */
+        private String fallback(TypeMirror type) {
+            Types types = processor.processingEnv.getTypeUtils();
+            TypeMirror erasure = types.erasure(type);
+            String read = "src.binding.TypeBinder.read(reader, " + erasure + ".class)";
+            return types.isSameType(type, erasure) ? read : "(" + type + ") " + read;
+        }
+
+        /** Element read that maps JSON null to Java null. */
+        private String readNullable(TypeMirror type, Element site) {
+            String read = read(type, site);
+            return type.getKind().isPrimitive() ? read : SUPPORT + ".isNull(reader) ? null : " + read;
+        }
+
+        private String readCollection(DeclaredType type, String implementation, Element site) {
+            TypeMirror element = typeArgument(type, 0);
+            String collection = implementation + "<" + element + ">";
+            StringBuilder body = new StringBuilder();
+            body.append("        ").append(collection).append(" items = new ").append(implementation).append("<>();\n");
+            body.append("        reader.beginArray();\n");
+            body.append("        while (reader.hasNext()) {\n");
+            body.append("            items.add(").append(readNullable(element, site)).append(");\n");
+            body.append("        }\n");
+            body.append("        reader.endArray();\n");
+            body.append("        return items;\n");
+            return helper(body.toString(), collection);
+        }
+
+        private String readMap(DeclaredType type, String implementation, Element site) {
+            TypeMirror key = typeArgument(type, 0);
+            String keyName = key.toString();
+            if (!keyName.equals("java.lang.String") && !keyName.equals("java.lang.Object")) {
+                processor.error(site, "Map keys must be Strings, not " + keyName);
+            }
+            TypeMirror value = typeArgument(type, 1);
+            String map = implementation + "<" + keyName + ", " + value + ">";
+            StringBuilder body = new StringBuilder();
+            body.append("        ").append(map).append(" map = new ").append(implementation).append("<>();\n");
+            body.append("        reader.beginObject();\n");
+            body.append("        while (reader.hasNext()) {\n");
+            body.append("            String name = reader.nextName();\n");
+            body.append("            map.put(name, ").append(readNullable(value, site)).append(");\n");
+            body.append("        }\n");
+            body.append("        reader.endObject();\n");
+            body.append("        return map;\n");
+            return helper(body.toString(), map);
+        }
+
+        private String readArray(ArrayType type, Element site) {
+            TypeMirror component = type.getComponentType();
+            String boxed = component.getKind().isPrimitive()
+                ? processor.processingEnv.getTypeUtils().boxedClass((PrimitiveType) component).getQualifiedName().toString()
+                : component.toString();
+            String erasure = processor.processingEnv.getTypeUtils().erasure(component).toString();
+            StringBuilder body = new StringBuilder();
+            body.append("        java.util.ArrayList<").append(boxed).append("> items = new java.util.ArrayList<>();\n");
+            body.append("        reader.beginArray();\n");
+            body.append("        while (reader.hasNext()) {\n");
+            body.append("            items.add(").append(readNullable(component, site)).append(");\n");
+            body.append("        }\n");
+            body.append("        reader.endArray();\n");
+            body.append("        ").append(type).append(" array = ").append(newArray(erasure, type)).append(";\n");
+            body.append("        for (int i = 0; i < array.length; i++) {\n");
+            body.append("            array[i] = items.get(i);\n");
+            body.append("        }\n");
+            body.append("        return array;\n");
+            return body.toString();
+        }
+
+        /** {@code new int[items.size()]}, or {@code new int[items.size()][]} for nested arrays. */
+        private static String newArray(String componentErasure, ArrayType type) {
+            int bracket = componentErasure.indexOf('[');
+            String base = bracket < 0 ? componentErasure : componentErasure.substring(0, bracket);
+            String rest = bracket < 0 ? "" : componentErasure.substring(bracket);
+            String cast = type.getComponentType().getKind() == TypeKind.DECLARED
+                && !((DeclaredType) type.getComponentType()).getTypeArguments().isEmpty() ? "(" + type + ") " : "";
+            return cast + "new " + base + "[items.size()]" + rest;
+        }
+
+        /** Adds a helper method with {@code body} and returns its call. */
+        private String helper(String body, String returnType) {
+            String name = "read" + helperCount++;
+            helpers.append('\n');
+            helpers.append("    @SuppressWarnings(\"unchecked\")\n");
+            helpers.append("    private static ").append(returnType).append(' ').append(name)
+                .append('(').append(READER).append(" reader) {\n");
+            helpers.append(body);
+            helpers.append("    }\n");
+            return name + "(reader)";
+        }
+
+        private TypeMirror typeArgument(DeclaredType type, int index) {
+            List<? extends TypeMirror> arguments = type.getTypeArguments();
+            if (index >= arguments.size()) {
+                return objectType();
+            }
+            TypeMirror argument = arguments.get(index);
+            if (argument instanceof WildcardType wildcard) {
+                return wildcard.getExtendsBound() != null ? wildcard.getExtendsBound() : objectType();
+            }
+            return argument;
+        }
+
+        private TypeMirror objectType() {
+            return processor.processingEnv.getElementUtils().getTypeElement("java.lang.Object").asType();
+        }
+
+        @Override
+        public String toString() {
+            return out.toString();
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // 2. --------------------------- Helpers ---------------------------------
+    // ------------------------------------------------------------------------
+
+    private static String defaultValue(TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN: return "false";
+            case BYTE:
+            case SHORT:
+            case INT:
+            case LONG:
+            case CHAR:
+            case FLOAT:
+            case DOUBLE:
+                return "0";
+            default:
+                return "null";
+        }
+    }
+
+    /** True if generated code in the same package can name {@code type}. */
+    private static boolean isAccessible(TypeElement type) {
+        for (Element e = type; e instanceof TypeElement; e = e.getEnclosingElement()) {
+            if (e.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void error(Element element, String message) {
+        Messager messager = processingEnv.getMessager();
+        messager.printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
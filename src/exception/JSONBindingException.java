@@ -0,0 +1,11 @@
+package src.exception;
+// package exception;
+
+/**
+ * Thrown when JSON cannot be bound to, or produced from, a Java type.
+ */
+public class JSONBindingException extends JSONException {
+    public JSONBindingException(String message) {
+        super("JSON Binding Error: " + message);
+    }
+}
@@ -0,0 +1,148 @@
+package src.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * =============================================================================
+ * HistogramMetrics.java
+ * =============================================================================
+ *
+ * In-memory {@link NSONMetrics} with per-operation counters and a latency
+ * histogram, for exporting to a monitoring system or printing.
+ *
+ * Latencies go into 64 power-of-two buckets, so recording is two adds and
+ * percentiles are accurate to within a factor of two, which is enough to
+ * tell a 50 microsecond parse from a 5 millisecond one.
+ *
+ * EXAMPLE USAGE:
+ * --------------
+ * HistogramMetrics metrics = new HistogramMetrics();
+ * NSON nson = new NSON(ParseOptions.DEFAULT, null, metrics);
+ * ...
+ * long p99 = metrics.percentileNanos(Operation.LOADS, 0.99);
+ *
+ * =============================================================================
+ */
+public final class HistogramMetrics implements NSONMetrics {
+
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] counts = adders();
+    private final LongAdder[] failures = adders();
+    private final LongAdder[] sizes = adders();
+    private final LongAdder[] nanos = adders();
+    private final AtomicLongArray[] histograms = new AtomicLongArray[Operation.values().length];
+
+    public HistogramMetrics() {
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new AtomicLongArray(BUCKETS);
+        }
+    }
+
+    @Override
+    public void record(Operation operation, long size, long elapsed, boolean success) {
+        int i = operation.ordinal();
+        counts[i].increment();
+        if (!success) {
+            failures[i].increment();
+        }
+        if (size > 0) {
+            sizes[i].add(size);
+        }
+        nanos[i].add(elapsed);
+        histograms[i].incrementAndGet(bucket(elapsed));
+    }
+
+    public long count(Operation operation) {
+        return counts[operation.ordinal()].sum();
+    }
+
+    public long failureCount(Operation operation) {
+        return failures[operation.ordinal()].sum();
+    }
+
+    /** Sum of the sizes passed to {@link #record}, for throughput. */
+    public long totalSize(Operation operation) {
+        return sizes[operation.ordinal()].sum();
+    }
+
+    public long totalNanos(Operation operation) {
+        return nanos[operation.ordinal()].sum();
+    }
+
+    /**
+     * Upper bound of the latency below which a {@code quantile} (0 to 1) of
+     * the calls fell, or 0 if nothing was recorded.
+     */
+    public long percentileNanos(Operation operation, double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("quantile must be within [0, 1]: " + quantile);
+        }
+        AtomicLongArray histogram = histograms[operation.ordinal()];
+        long total = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            total += histogram.get(b);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * total));
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += histogram.get(b);
+            if (seen >= rank) {
+                return b == 0 ? 0 : b >= 63 ? Long.MAX_VALUE : (1L << b) - 1;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /** Clears all counters and histograms. */
+    public void reset() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i].reset();
+            failures[i].reset();
+            sizes[i].reset();
+            nanos[i].reset();
+            for (int b = 0; b < BUCKETS; b++) {
+                histograms[i].set(b, 0);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("HistogramMetrics[");
+        boolean first = true;
+        for (Operation operation : Operation.values()) {
+            long count = count(operation);
+            if (count == 0) {
+                continue;
+            }
+            if (!first) {
+                sb.append(", ");
+            }
+            first = false;
+            sb.append(operation).append("{count=").append(count)
+                .append(", failures=").append(failureCount(operation))
+                .append(", size=").append(totalSize(operation))
+                .append(", p50=").append(percentileNanos(operation, 0.5)).append("ns")
+                .append(", p99=").append(percentileNanos(operation, 0.99)).append("ns}");
+        }
+        return sb.append(']').toString();
+    }
+
+    /** Bucket {@code b} holds latencies in {@code [2^(b-1), 2^b)}; bucket 0 holds 0. */
+    private static int bucket(long elapsed) {
+        return elapsed <= 0 ? 0 : BUCKETS - Long.numberOfLeadingZeros(elapsed);
+    }
+
+    private static LongAdder[] adders() {
+        LongAdder[] adders = new LongAdder[Operation.values().length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
@@ -0,0 +1,47 @@
+package src.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JDK Flight Recorder event for one parse, serialize or validate call.
+ * <p>
+ * The event is disabled by default, so a recording that does not ask for
+ * it never walks a document. Enable it with e.g.
+ * {@code -XX:StartFlightRecording:filename=nson.jfr,+src.NSON#enabled=true}
+ * or in JDK Mission Control. The event's duration covers the whole call;
+ * the node count and depth are computed only when the event is actually
+ * recorded, after the threshold check.
+ */
+@Name("src.NSON")
+@Label("NSON Operation")
+@Category("NSON")
+@Description("A call to NSON load, loads, dump, dumps or isValidJSON")
+@StackTrace(false)
+@Enabled(false)
+public final class NSONEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Size")
+    @Description("Input size for loads and validation, output size for dumps")
+    @DataAmount
+    long size;
+
+    @Label("Node Count")
+    @Description("Objects, arrays and scalars in the document")
+    long nodes;
+
+    @Label("Max Depth")
+    int maxDepth;
+
+    @Label("Success")
+    boolean success;
+}
@@ -0,0 +1,35 @@
+package src.metrics;
+
+/**
+ * Receives one callback per instrumented {@code NSON} call, for exporting
+ * throughput and latency to a metrics system.
+ * <p>
+ * The default, {@link #NOOP}, is recognised by {@code NSON} and skips the
+ * clock reads entirely, so an uninstrumented instance pays nothing.
+ * {@link HistogramMetrics} is a ready-made in-memory implementation.
+ * Implementations are called on the caller's thread and must be
+ * thread-safe and fast.
+ */
+public interface NSONMetrics {
+
+    /** The instrumented operations. */
+    enum Operation {
+        LOAD, LOADS, DUMP, DUMPS, VALIDATE
+    }
+
+    /** Records nothing. */
+    NSONMetrics NOOP = (operation, size, nanos, success) -> {
+    };
+
+    /**
+     * Called when an operation ends.
+     *
+     * @param operation The operation.
+     * @param size      Input bytes (LOAD) or characters (LOADS, VALIDATE),
+     *                  output characters (DUMPS) or bytes (DUMP); -1 if
+     *                  unknown.
+     * @param nanos     Wall-clock duration.
+     * @param success   False if the operation threw.
+     */
+    void record(Operation operation, long size, long nanos, boolean success);
+}
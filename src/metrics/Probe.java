@@ -0,0 +1,111 @@
+package src.metrics;
+
+import java.util.Collection;
+import java.util.Map;
+
+import src.metrics.NSONMetrics.Operation;
+import src.parser.JSONParser;
+
+/**
+ * =============================================================================
+ * Probe.java
+ * =============================================================================
+ *
+ * Measures one instrumented call for both {@link NSONEvent} and an
+ * {@link NSONMetrics} sink.
+ *
+ * When neither is active a probe does no clock reads and no tree walks;
+ * its allocation, like the JFR event's, is removed by escape analysis once
+ * the caller is compiled. The document shape (node count and depth) is
+ * only computed for successful calls whose event is about to be committed,
+ * and only down to {@link JSONParser#MAX_DEPTH}, so a self-referencing
+ * map that the writer rejects is never walked.
+ *
+ * EXAMPLE USAGE:
+ * --------------
+ * Probe probe = Probe.begin(metrics, Operation.LOADS);
+ * Object tree = null;
+ * try {
+ *     tree = parse(json);
+ * } finally {
+ *     probe.end(json.length(), tree, tree != null);
+ * }
+ *
+ * =============================================================================
+ */
+public final class Probe {
+
+    private final NSONEvent event = new NSONEvent();
+    private final NSONMetrics metrics;
+    private final Operation operation;
+    private final long start;
+
+    private Probe(NSONMetrics metrics, Operation operation) {
+        this.metrics = metrics;
+        this.operation = operation;
+        this.start = metrics != NSONMetrics.NOOP ? System.nanoTime() : 0;
+        event.begin();
+    }
+
+    public static Probe begin(NSONMetrics metrics, Operation operation) {
+        return new Probe(metrics, operation);
+    }
+
+    /**
+     * Returns true if anything is measured, so callers can skip computing
+     * a costly size argument otherwise.
+     */
+    public boolean isActive() {
+        return metrics != NSONMetrics.NOOP || event.isEnabled();
+    }
+
+    /**
+     * Ends the measurement.
+     *
+     * @param size    See {@link NSONMetrics#record}.
+     * @param tree    The parsed or serialized tree, or null; only walked
+     *                for a committed event of a successful call.
+     * @param success False if the call threw.
+     */
+    public void end(long size, Object tree, boolean success) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation.name();
+            event.size = size;
+            event.success = success;
+            if (success && tree != null) {
+                long[] shape = new long[2];
+                walk(tree, 1, shape);
+                event.nodes = shape[0];
+                event.maxDepth = (int) shape[1];
+            }
+            event.commit();
+        }
+        if (metrics != NSONMetrics.NOOP) {
+            metrics.record(operation, size, System.nanoTime() - start, success);
+        }
+    }
+
+    /**
+     * Counts nodes into {@code shape[0]} and the deepest level into
+     * {@code shape[1]}, not descending below {@link JSONParser#MAX_DEPTH}.
+     */
+    private static void walk(Object value, int depth, long[] shape) {
+        shape[0]++;
+        if (depth > shape[1]) {
+            shape[1] = depth;
+        }
+        if (depth >= JSONParser.MAX_DEPTH) {
+            return;
+        }
+        if (value instanceof Map<?, ?> map) {
+            for (Object child : map.values()) {
+                walk(child, depth + 1, shape);
+            }
+        } else if (value instanceof Collection<?> collection) {
+            for (Object child : collection) {
+                walk(child, depth + 1, shape);
+            }
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package src.parser;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.UnaryOperator;
+
+/**
+ * Immutable, insertion-ordered {@code Map} of a parsed JSON object, stored
+ * as two parallel arrays of keys and values.
+ * <p>
+ * Produced when {@link ParseOptions#compactObjects()} is set. There is no
+ * entry object per member and no mostly empty table: objects with up to
+ * {@link #LINEAR_MAX} members are searched by a linear scan of the key
+ * array, larger ones through an {@code int[]} open-addressing index with
+ * linear probing. Duplicate keys keep their first position and their last
+ * value, as with a {@code LinkedHashMap} filled in order.
+ */
+public final class CompactMap extends AbstractMap<String, Object> {
+
+    /** Largest size searched by a linear scan instead of a hash index. */
+    public static final int LINEAR_MAX = 8;
+
+    static final CompactMap EMPTY = new CompactMap(new String[0], new Object[0], null);
+
+    private final String[] keys;
+    private final Object[] values;
+    /** Slot to member index + 1, 0 for empty; null for small maps. */
+    private final int[] index;
+    private Set<Entry<String, Object>> entrySet;
+
+    private CompactMap(String[] keys, Object[] values, int[] index) {
+        this.keys = keys;
+        this.values = values;
+        this.index = index;
+    }
+
+    /**
+     * Copies {@code map} into a CompactMap in its iteration order.
+     *
+     * @throws NullPointerException If a key is null.
+     */
+    public static CompactMap copyOf(Map<String, ?> map) {
+        if (map instanceof CompactMap compact) {
+            return compact;
+        }
+        Builder builder = new Builder();
+        for (Entry<String, ?> entry : map.entrySet()) {
+            builder.put(entry.getKey(), entry.getValue());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns a map with the same keys and every value replaced by
+     * {@code function}. The key array and index are shared with this map.
+     */
+    public CompactMap mapValues(UnaryOperator<Object> function) {
+        Object[] mapped = new Object[values.length];
+        for (int i = 0; i < mapped.length; i++) {
+            mapped[i] = function.apply(values[i]);
+        }
+        return new CompactMap(keys, mapped, index);
+    }
+
+    @Override
+    public Object get(Object key) {
+        int i = indexOf(key);
+        return i < 0 ? null : values[i];
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return indexOf(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return keys.length;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        Set<Entry<String, Object>> set = entrySet;
+        if (set == null) {
+            set = entrySet = new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<String, Object>> iterator() {
+                    return new Iterator<>() {
+                        private int next;
+
+                        @Override
+                        public boolean hasNext() {
+                            return next < keys.length;
+                        }
+
+                        @Override
+                        public Entry<String, Object> next() {
+                            if (next >= keys.length) {
+                                throw new NoSuchElementException();
+                            }
+                            int i = next++;
+                            return new SimpleImmutableEntry<>(keys[i], values[i]);
+                        }
+                    };
+                }
+
+                @Override
+                public int size() {
+                    return keys.length;
+                }
+            };
+        }
+        return set;
+    }
+
+    private int indexOf(Object key) {
+        if (!(key instanceof String)) {
+            return -1;
+        }
+        if (index == null) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i].equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        return probe(keys, index, (String) key);
+    }
+
+    /** Looks {@code key} up in an open-addressing index over {@code keys}. */
+    private static int probe(String[] keys, int[] index, String key) {
+        int mask = index.length - 1;
+        for (int slot = spread(key.hashCode()) & mask; ; slot = (slot + 1) & mask) {
+            int entry = index[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            if (keys[entry - 1].equals(key)) {
+                return entry - 1;
+            }
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    // ------------------------------------------------------------------------
+    // 1. --------------------------- Builder ---------------------------------
+    // ------------------------------------------------------------------------
+
+    /**
+     * Collects the members of one object in document order. Used by the
+     * parsers; a builder produces one map.
+     */
+    static final class Builder {
+
+        private String[] keys = new String[LINEAR_MAX];
+        private Object[] values = new Object[LINEAR_MAX];
+        private int size;
+
+        void put(String key, Object value) {
+            if (key == null) {
+                throw new NullPointerException("CompactMap keys must not be null");
+            }
+            if (size == keys.length) {
+                int capacity = size * 2;
+                keys = Arrays.copyOf(keys, capacity);
+                values = Arrays.copyOf(values, capacity);
+            }
+            keys[size] = key;
+            values[size++] = value;
+        }
+
+        CompactMap build() {
+            if (size == 0) {
+                return EMPTY;
+            }
+            if (size <= LINEAR_MAX) {
+                return buildLinear();
+            }
+            return buildIndexed();
+        }
+
+        private CompactMap buildLinear() {
+            int unique = 0;
+            outer:
+            for (int i = 0; i < size; i++) {
+                for (int j = 0; j < unique; j++) {
+                    if (keys[j].equals(keys[i])) {
+                        values[j] = values[i];
+                        continue outer;
+                    }
+                }
+                keys[unique] = keys[i];
+                values[unique++] = values[i];
+            }
+            return new CompactMap(Arrays.copyOf(keys, unique), Arrays.copyOf(values, unique), null);
+        }
+
+        private CompactMap buildIndexed() {
+            // At most half full, so probe sequences stay short
+            int[] index = new int[Integer.highestOneBit(size * 2 - 1) << 1];
+            int mask = index.length - 1;
+            int unique = 0;
+            for (int i = 0; i < size; i++) {
+                String key = keys[i];
+                int slot = spread(key.hashCode()) & mask;
+                while (index[slot] != 0 && !keys[index[slot] - 1].equals(key)) {
+                    slot = (slot + 1) & mask;
+                }
+                if (index[slot] != 0) {
+                    values[index[slot] - 1] = values[i]; // duplicate: last value wins
+                    continue;
+                }
+                keys[unique] = key;
+                values[unique] = values[i];
+                index[slot] = ++unique;
+            }
+            return new CompactMap(Arrays.copyOf(keys, unique), Arrays.copyOf(values, unique), index);
+        }
+    }
+}
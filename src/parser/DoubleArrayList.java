@@ -0,0 +1,75 @@
+package src.parser;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.RandomAccess;
+
+/**
+ * Read-only {@code List} of JSON numbers backed by a {@code double[]}.
+ * <p>
+ * Produced for arrays of decimals when
+ * {@link ParseOptions#primitiveArrays()} is set, at 8 bytes per element
+ * instead of a reference plus a boxed {@code Double}. Integers in such an
+ * array are stored as doubles and flagged in a bit set, so
+ * {@link #get(int)} returns them as {@code Long} and {@code JSONWriter}
+ * writes them without a fraction, as for a boxed list. {@link #get(int)}
+ * boxes on access; {@link #getDouble(int)} does not.
+ */
+public final class DoubleArrayList extends AbstractList<Object> implements RandomAccess {
+
+    private final double[] values;
+    private final int size;
+    /** Positions that held integers, or null if there were none. */
+    private final BitSet integers;
+
+    DoubleArrayList(double[] values, int size, BitSet integers) {
+        this.values = values;
+        this.size = size;
+        this.integers = integers == null || integers.isEmpty() ? null : integers;
+    }
+
+    /**
+     * Wraps {@code values} without copying, e.g. to serialize an embedding
+     * without boxing. The array must not be modified afterwards.
+     */
+    public static DoubleArrayList wrap(double[] values) {
+        return new DoubleArrayList(values, values.length, null);
+    }
+
+    @Override
+    public Object get(int index) {
+        double value = getDouble(index);
+        if (integers != null && integers.get(index)) {
+            return (long) value;
+        }
+        return value;
+    }
+
+    public double getDouble(int index) {
+        checkIndex(index);
+        return values[index];
+    }
+
+    /** True if the element at {@code index} was an integer in the JSON. */
+    public boolean isInteger(int index) {
+        checkIndex(index);
+        return integers != null && integers.get(index);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /** Returns a copy of the elements. */
+    public double[] toDoubleArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+    }
+}
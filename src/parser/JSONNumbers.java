@@ -0,0 +1,254 @@
+package src.parser;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * =============================================================================
+ * JSONNumbers.java
+ * =============================================================================
+ *
+ * Hand-rolled conversion of JSON number literals into {@code Long} and
+ * {@code Double} values, shared by all parsers.
+ *
+ * The digits are accumulated straight from the input into a {@code long}
+ * mantissa, so the common cases never create an intermediate String:
+ * - integers with up to 18 significant digits become a {@code Long}
+ * - decimals whose mantissa fits in 53 bits and whose decimal exponent is
+ *   within +/-22 are computed exactly with a single multiply or divide
+ *
+ * Everything else falls back to the JDK: {@link Double#parseDouble} for other
+ * decimals, {@link BigInteger} for integers that do not fit in a long and
+ * {@link BigDecimal} for values that would overflow or underflow a double.
+ *
+ * =============================================================================
+ */
+public final class JSONNumbers {
+
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10,
+        1e11, 1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20,
+        1e21, 1e22
+    };
+
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    /** Significant digits that always fit in a long mantissa. */
+    private static final int MAX_DIGITS = 18;
+
+    private JSONNumbers() {
+    }
+
+    /**
+     * Parses {@code [start, end)} of {@code text} as a JSON number.
+     *
+     * @return the value, or {@code null} if the region is not a valid number
+     */
+    public static Number parse(CharSequence text, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && text.charAt(i) == '-') {
+            negative = true;
+            i++;
+        }
+
+        long mantissa = 0;
+        int significant = 0;
+        boolean truncated = false;
+        int scale = 0;
+
+        int digitsStart = i;
+        for (; i < end; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) break;
+            if (significant < MAX_DIGITS) {
+                mantissa = mantissa * 10 + digit;
+                if (mantissa != 0) significant++;
+            } else {
+                truncated = true;
+            }
+        }
+        if (i == digitsStart) return null;
+
+        boolean isFloat = false;
+        if (i < end && text.charAt(i) == '.') {
+            isFloat = true;
+            int fractionStart = ++i;
+            for (; i < end; i++) {
+                int digit = text.charAt(i) - '0';
+                if (digit < 0 || digit > 9) break;
+                if (significant < MAX_DIGITS) {
+                    mantissa = mantissa * 10 + digit;
+                    if (mantissa != 0) significant++;
+                    scale++;
+                } else {
+                    truncated = true;
+                }
+            }
+            if (i == fractionStart) return null;
+        }
+
+        int exponent = 0;
+        if (i < end && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            isFloat = true;
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (text.charAt(i) == '+' || text.charAt(i) == '-')) {
+                negativeExponent = text.charAt(i) == '-';
+                i++;
+            }
+            int exponentStart = i;
+            for (; i < end; i++) {
+                int digit = text.charAt(i) - '0';
+                if (digit < 0 || digit > 9) break;
+                if (exponent < 100_000) exponent = exponent * 10 + digit;
+            }
+            if (i == exponentStart) return null;
+            if (negativeExponent) exponent = -exponent;
+        }
+        if (i != end) return null;
+
+        Number fast = toNumber(negative, mantissa, truncated, scale, exponent, isFloat);
+        return fast != null ? fast : fallback(text.subSequence(start, end).toString(), isFloat);
+    }
+
+    /**
+     * Parses {@code length} ASCII bytes of {@code bytes} starting at
+     * {@code offset} as a JSON number.
+     *
+     * @return the value, or {@code null} if the region is not a valid number
+     */
+    public static Number parse(byte[] bytes, int offset, int length) {
+        int end = offset + length;
+        int i = offset;
+        boolean negative = false;
+        if (i < end && bytes[i] == '-') {
+            negative = true;
+            i++;
+        }
+
+        long mantissa = 0;
+        int significant = 0;
+        boolean truncated = false;
+        int scale = 0;
+
+        int digitsStart = i;
+        for (; i < end; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) break;
+            if (significant < MAX_DIGITS) {
+                mantissa = mantissa * 10 + digit;
+                if (mantissa != 0) significant++;
+            } else {
+                truncated = true;
+            }
+        }
+        if (i == digitsStart) return null;
+
+        boolean isFloat = false;
+        if (i < end && bytes[i] == '.') {
+            isFloat = true;
+            int fractionStart = ++i;
+            for (; i < end; i++) {
+                int digit = bytes[i] - '0';
+                if (digit < 0 || digit > 9) break;
+                if (significant < MAX_DIGITS) {
+                    mantissa = mantissa * 10 + digit;
+                    if (mantissa != 0) significant++;
+                    scale++;
+                } else {
+                    truncated = true;
+                }
+            }
+            if (i == fractionStart) return null;
+        }
+
+        int exponent = 0;
+        if (i < end && (bytes[i] == 'e' || bytes[i] == 'E')) {
+            isFloat = true;
+            i++;
+            boolean negativeExponent = false;
+            if (i < end && (bytes[i] == '+' || bytes[i] == '-')) {
+                negativeExponent = bytes[i] == '-';
+                i++;
+            }
+            int exponentStart = i;
+            for (; i < end; i++) {
+                int digit = bytes[i] - '0';
+                if (digit < 0 || digit > 9) break;
+                if (exponent < 100_000) exponent = exponent * 10 + digit;
+            }
+            if (i == exponentStart) return null;
+            if (negativeExponent) exponent = -exponent;
+        }
+        if (i != end) return null;
+
+        Number fast = toNumber(negative, mantissa, truncated, scale, exponent, isFloat);
+        return fast != null ? fast : fallback(new String(bytes, offset, length, StandardCharsets.ISO_8859_1), isFloat);
+    }
+
+    /**
+     * Returns true if {@code [start, end)} of {@code text} is a valid JSON
+     * number, without converting it.
+     */
+    public static boolean isNumber(CharSequence text, int start, int end) {
+        int i = start;
+        if (i < end && text.charAt(i) == '-') i++;
+        int digits = i;
+        while (i < end && isDigit(text.charAt(i))) i++;
+        if (i == digits) return false;
+        if (i < end && text.charAt(i) == '.') {
+            digits = ++i;
+            while (i < end && isDigit(text.charAt(i))) i++;
+            if (i == digits) return false;
+        }
+        if (i < end && (text.charAt(i) == 'e' || text.charAt(i) == 'E')) {
+            i++;
+            if (i < end && (text.charAt(i) == '+' || text.charAt(i) == '-')) i++;
+            digits = i;
+            while (i < end && isDigit(text.charAt(i))) i++;
+            if (i == digits) return false;
+        }
+        return i == end;
+    }
+
+    /**
+     * Fast path shared by both parse methods. Returns {@code null} when the
+     * value cannot be computed exactly from the accumulated mantissa.
+     */
+    private static Number toNumber(boolean negative, long mantissa, boolean truncated,
+                                   int scale, int exponent, boolean isFloat) {
+        if (truncated) {
+            return null;
+        }
+        if (!isFloat) {
+            return negative ? -mantissa : mantissa;
+        }
+        if (mantissa > MAX_EXACT_MANTISSA) {
+            return null;
+        }
+        int power = exponent - scale;
+        if (power < -22 || power > 22) {
+            return null;
+        }
+        double value = (double) mantissa;
+        value = power < 0 ? value / POWERS_OF_TEN[-power] : value * POWERS_OF_TEN[power];
+        return negative ? -value : value;
+    }
+
+    private static Number fallback(String text, boolean isFloat) {
+        if (!isFloat) {
+            BigInteger big = new BigInteger(text);
+            return big.bitLength() < 64 ? (Number) Long.valueOf(big.longValue()) : big;
+        }
+        double value = Double.parseDouble(text);
+        if (Double.isInfinite(value) || (value == 0 && new BigDecimal(text).signum() != 0)) {
+            return new BigDecimal(text);
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+}
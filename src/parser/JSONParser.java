@@ -0,0 +1,575 @@
+package src.parser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import src.exception.JSONParseException;
+
+/**
+ * =============================================================================
+ * JSONParser.java
+ * =============================================================================
+ *
+ * Single-pass, cursor based recursive-descent parser used behind
+ * {@code NSON.loads()}.
+ *
+ * Unlike {@code RawJSONHandler}, which splits the input into substrings at every
+ * nesting level and re-parses them, this parser walks the input exactly once
+ * with an integer cursor. The only objects it allocates are the values that end
+ * up in the resulting tree, so parse time and garbage grow linearly with the
+ * size of the document.
+ *
+ * OUTPUT:
+ * -------
+ * - JSON objects become {@code HashMap<String, Object>}, or {@link CompactMap}
+ *   when {@link ParseOptions#compactObjects()} is set
+ * - JSON arrays become {@code ArrayList<Object>}, or {@link LongArrayList} /
+ *   {@link DoubleArrayList} for numeric arrays when
+ *   {@link ParseOptions#primitiveArrays()} is set
+ * - Strings are returned without their quotes, escapes decoded
+ * - Numbers become {@code Long} or {@code Double} (see {@link JSONNumbers}),
+ *   or {@link LazyNumber} when {@link ParseOptions#lazyNumbers()} is set
+ * - {@code true}/{@code false} become {@code Boolean}, {@code null} is null
+ *
+ * Single-quoted strings are accepted for compatibility with the legacy
+ * parser.
+ *
+ * =============================================================================
+ */
+public class JSONParser {
+
+    /** Nesting limit that protects the recursive descent from stack overflow. */
+    public static final int MAX_DEPTH = 1024;
+
+    private final String src;
+    private final ParseOptions options;
+    private final KeyCache keyCache;
+    private final int end;
+    private int pos;
+    private int depth;
+
+    /** Index of the next backslash at or after {@code pos}, or {@code end}. */
+    private int nextEscape = -1;
+
+    public JSONParser(String src) {
+        this(src, ParseOptions.DEFAULT);
+    }
+
+    public JSONParser(String src, ParseOptions options) {
+        this(src, 0, src.length(), options);
+    }
+
+    /**
+     * Creates a parser over the region {@code [start, end)} of {@code src}.
+     */
+    public JSONParser(String src, int start, int end, ParseOptions options) {
+        if (start < 0 || end > src.length() || start > end) {
+            throw new IndexOutOfBoundsException("Invalid region [" + start + ", " + end + ") for length " + src.length());
+        }
+        this.src = src;
+        this.options = options;
+        this.keyCache = options.keyCache();
+        this.pos = start;
+        this.end = end;
+    }
+
+    // ------------------------------------------------------------------------
+    // 1. ------------------------- Entry Points ------------------------------
+    // ------------------------------------------------------------------------
+
+    /**
+     * Parses a complete document whose root must be a JSON object.
+     */
+    public static Map<String, Object> parseObject(String src) {
+        return parseObject(src, ParseOptions.DEFAULT);
+    }
+
+    public static Map<String, Object> parseObject(String src, ParseOptions options) {
+        JSONParser parser = new JSONParser(src, options);
+        parser.skipWhitespace();
+        if (parser.pos >= parser.end || parser.src.charAt(parser.pos) != '{') {
+            throw parser.error(parser.pos < parser.end && parser.src.charAt(parser.pos) == '['
+                ? "Expected '{' at document root, found an array" : "Expected '{' at document root");
+        }
+        Map<String, Object> map = parser.readObject();
+        parser.expectEnd();
+        return map;
+    }
+
+    /**
+     * Parses a complete document whose root must be a JSON array.
+     */
+    public static List<Object> parseArray(String src, ParseOptions options) {
+        JSONParser parser = new JSONParser(src, options);
+        parser.skipWhitespace();
+        if (parser.pos >= parser.end || parser.src.charAt(parser.pos) != '[') {
+            throw parser.error("Expected '[' at document root");
+        }
+        List<Object> list = parser.readArray();
+        parser.expectEnd();
+        return list;
+    }
+
+    /**
+     * Parses a complete document with any kind of root value.
+     */
+    public static Object parse(String src) {
+        return new JSONParser(src).parseDocument();
+    }
+
+    /**
+     * Parses the single value in this parser's region and checks that nothing
+     * but whitespace follows it.
+     */
+    public Object parseDocument() {
+        Object value = readValue();
+        expectEnd();
+        return value;
+    }
+
+    // ------------------------------------------------------------------------
+    // 2. ------------------------- Value Readers -----------------------------
+    // ------------------------------------------------------------------------
+
+    Object readValue() {
+        skipWhitespace();
+        if (pos >= end) {
+            throw error("Unexpected end of input");
+        }
+        char ch = src.charAt(pos);
+        switch (ch) {
+            case '{':
+                return readObject();
+            case '[':
+                return readArray();
+            case '"':
+            case '\'':
+                return readString();
+            default:
+                return readLiteral();
+        }
+    }
+
+    Map<String, Object> readObject() {
+        enter();
+        pos++; // '{'
+        CompactMap.Builder compact = options.compactObjects() ? new CompactMap.Builder() : null;
+        Map<String, Object> map = compact == null ? new HashMap<>() : null;
+        skipWhitespace();
+        if (pos < end && src.charAt(pos) == '}') {
+            pos++;
+            depth--;
+            return compact != null ? CompactMap.EMPTY : map;
+        }
+
+        while (true) {
+            skipWhitespace();
+            if (pos >= end) {
+                throw error("Unterminated object");
+            }
+            char ch = src.charAt(pos);
+            if (ch != '"' && ch != '\'') {
+                throw error("Expected string key");
+            }
+            String key = readString(keyCache);
+            skipWhitespace();
+            if (pos >= end || src.charAt(pos) != ':') {
+                throw error("Expected ':' after key");
+            }
+            pos++;
+            if (compact != null) {
+                compact.put(key, readValue());
+            } else {
+                map.put(key, readValue());
+            }
+
+            skipWhitespace();
+            if (pos >= end) {
+                throw error("Unterminated object");
+            }
+            ch = src.charAt(pos++);
+            if (ch == '}') {
+                break;
+            }
+            if (ch != ',') {
+                pos--;
+                throw error("Expected ',' or '}' in object");
+            }
+        }
+        depth--;
+        return compact != null ? compact.build() : map;
+    }
+
+    List<Object> readArray() {
+        enter();
+        pos++; // '['
+        skipWhitespace();
+        if (pos < end && src.charAt(pos) == ']') {
+            pos++;
+            depth--;
+            return new ArrayList<>();
+        }
+
+        // Numbers are collected unboxed until the first element that does not fit
+        NumericArrayBuilder numbers = options.primitiveArrays() ? new NumericArrayBuilder() : null;
+        List<Object> list = numbers == null ? new ArrayList<>() : null;
+        while (true) {
+            Object value = readValue();
+            if (numbers == null) {
+                list.add(value);
+            } else if (!numbers.add(value)) {
+                list = numbers.toList();
+                list.add(value);
+                numbers = null;
+            }
+            skipWhitespace();
+            if (pos >= end) {
+                throw error("Unterminated array");
+            }
+            char ch = src.charAt(pos++);
+            if (ch == ']') {
+                break;
+            }
+            if (ch != ',') {
+                pos--;
+                throw error("Expected ',' or ']' in array");
+            }
+        }
+        depth--;
+        return numbers != null ? numbers.build() : list;
+    }
+
+    /**
+     * Reads a quoted string starting at the cursor. Strings without escapes are
+     * returned as a single substring of the input; only strings containing a
+     * backslash go through a {@link StringBuilder}.
+     */
+    String readString() {
+        return readString(null);
+    }
+
+    /**
+     * Reads a string, canonicalizing unescaped values through {@code cache}
+     * when one is given.
+     */
+    String readString(KeyCache cache) {
+        char quote = src.charAt(pos);
+        int start = pos + 1;
+        int close = src.indexOf(quote, start);
+        if (close < 0 || close >= end) {
+            throw error("Unterminated string");
+        }
+        if (close < escapeAfter(start)) {
+            pos = close + 1;
+            return cache != null ? cache.get(src, start, close) : src.substring(start, close);
+        }
+        return readEscapedString(quote, start, close);
+    }
+
+    private String readEscapedString(char quote, int start, int firstQuote) {
+        StringBuilder sb = new StringBuilder(firstQuote - start + 16);
+        int i = start;
+        while (true) {
+            if (i >= end) {
+                pos = i;
+                throw error("Unterminated string");
+            }
+            char ch = src.charAt(i);
+            if (ch == quote) {
+                pos = i + 1;
+                return sb.toString();
+            }
+            if (ch != '\\') {
+                sb.append(ch);
+                i++;
+                continue;
+            }
+            if (i + 1 >= end) {
+                pos = i;
+                throw error("Unterminated escape sequence");
+            }
+            char esc = src.charAt(i + 1);
+            i += 2;
+            switch (esc) {
+                case '"':  sb.append('"');  break;
+                case '\'': sb.append('\''); break;
+                case '\\': sb.append('\\'); break;
+                case '/':  sb.append('/');  break;
+                case 'b':  sb.append('\b'); break;
+                case 'f':  sb.append('\f'); break;
+                case 'n':  sb.append('\n'); break;
+                case 'r':  sb.append('\r'); break;
+                case 't':  sb.append('\t'); break;
+                case 'u':
+                    if (i + 4 > end) {
+                        pos = i;
+                        throw error("Truncated unicode escape");
+                    }
+                    int code = 0;
+                    for (int k = 0; k < 4; k++) {
+                        int digit = Character.digit(src.charAt(i + k), 16);
+                        if (digit < 0) {
+                            pos = i + k;
+                            throw error("Invalid unicode escape");
+                        }
+                        code = (code << 4) | digit;
+                    }
+                    sb.append((char) code);
+                    i += 4;
+                    break;
+                default:
+                    pos = i - 1;
+                    throw error("Invalid escape character '" + esc + "'");
+            }
+        }
+    }
+
+    /**
+     * Reads a bare literal: a number, {@code true}, {@code false} or
+     * {@code null}.
+     */
+    Object readLiteral() {
+        int start = pos;
+        while (pos < end && !isDelimiter(src.charAt(pos))) {
+            pos++;
+        }
+        if (pos == start) {
+            throw error("Unexpected character '" + src.charAt(pos) + "'");
+        }
+        if (isKeyword(start, pos, "true")) return Boolean.TRUE;
+        if (isKeyword(start, pos, "false")) return Boolean.FALSE;
+        if (isKeyword(start, pos, "null")) return null;
+
+        Object number;
+        if (options.lazyNumbers()) {
+            number = JSONNumbers.isNumber(src, start, pos) ? new LazyNumber(src.substring(start, pos)) : null;
+        } else {
+            number = JSONNumbers.parse(src, start, pos);
+        }
+        if (number == null) {
+            pos = start;
+            throw error("Invalid literal");
+        }
+        return number;
+    }
+
+    // ------------------------------------------------------------------------
+    // 3. ----------------------- Skipping and Stepping -----------------------
+    // ------------------------------------------------------------------------
+    // Used by PathProjection to walk a document and build only the selected
+    // values.
+
+    /**
+     * Skips the value at the cursor without building it. Containers are
+     * skipped by bracket matching with string contents jumped over, so only
+     * their nesting is checked, not their full syntax.
+     */
+    void skipValue() {
+        skipWhitespace();
+        if (pos >= end) {
+            throw error("Unexpected end of input");
+        }
+        int start = pos;
+        int level = 0;
+        do {
+            char ch = src.charAt(pos);
+            if (ch == '"' || ch == '\'') {
+                pos = closingQuote(pos) + 1;
+            } else if (ch == '{' || ch == '[') {
+                level++;
+                pos++;
+            } else if (ch == '}' || ch == ']') {
+                if (level == 0) {
+                    break;
+                }
+                level--;
+                pos++;
+            } else if (level == 0) {
+                readLiteral();
+            } else {
+                pos++;
+            }
+        } while (level > 0 && pos < end);
+        if (level > 0 || pos == start) {
+            pos = start;
+            throw error(level > 0 ? "Unterminated container" : "Unexpected character '" + src.charAt(pos) + "'");
+        }
+    }
+
+    /**
+     * Returns the next non-whitespace character without consuming it, or -1
+     * at the end of the input.
+     */
+    int peekChar() {
+        skipWhitespace();
+        return pos < end ? src.charAt(pos) : -1;
+    }
+
+    /**
+     * Consumes the opening bracket at the cursor. Returns false, having also
+     * consumed the closing bracket, if the container is empty.
+     */
+    boolean beginContainer() {
+        enter();
+        char close = src.charAt(pos++) == '{' ? '}' : ']';
+        skipWhitespace();
+        if (pos < end && src.charAt(pos) == close) {
+            pos++;
+            depth--;
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Consumes the separator after a member. Returns true if another member
+     * follows, false if {@code close} ended the container.
+     */
+    boolean nextMember(char close) {
+        skipWhitespace();
+        if (pos >= end) {
+            throw error(close == '}' ? "Unterminated object" : "Unterminated array");
+        }
+        char ch = src.charAt(pos++);
+        if (ch == ',') {
+            return true;
+        }
+        if (ch != close) {
+            pos--;
+            throw error(close == '}' ? "Expected ',' or '}' in object" : "Expected ',' or ']' in array");
+        }
+        depth--;
+        return false;
+    }
+
+    /**
+     * Reads an object key and its colon, and returns the index of the key
+     * in {@code names}, or -1. Keys without escapes are compared in place,
+     * so keys that match nothing are never allocated.
+     */
+    int readKey(String[] names) {
+        skipWhitespace();
+        if (pos >= end) {
+            throw error("Unterminated object");
+        }
+        char quote = src.charAt(pos);
+        if (quote != '"' && quote != '\'') {
+            throw error("Expected string key");
+        }
+        int start = pos + 1;
+        int close = closingQuote(pos);
+        int match = -1;
+        if (close < escapeAfter(start)) {
+            int length = close - start;
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].length() == length && src.regionMatches(start, names[i], 0, length)) {
+                    match = i;
+                    break;
+                }
+            }
+            pos = close + 1;
+        } else {
+            String key = readString();
+            for (int i = 0; i < names.length; i++) {
+                if (names[i].equals(key)) {
+                    match = i;
+                    break;
+                }
+            }
+        }
+        skipWhitespace();
+        if (pos >= end || src.charAt(pos) != ':') {
+            throw error("Expected ':' after key");
+        }
+        pos++;
+        return match;
+    }
+
+    /** Offset of the quote that closes the string opening at {@code open}. */
+    private int closingQuote(int open) {
+        char quote = src.charAt(open);
+        int p = open + 1;
+        while (true) {
+            int close = src.indexOf(quote, p);
+            if (close < 0 || close >= end) {
+                pos = open;
+                throw error("Unterminated string");
+            }
+            int backslashes = 0;
+            while (src.charAt(close - 1 - backslashes) == '\\') {
+                backslashes++;
+            }
+            if ((backslashes & 1) == 0) {
+                return close;
+            }
+            p = close + 1;
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // 4. --------------------------- Helpers ---------------------------------
+    // ------------------------------------------------------------------------
+
+    void skipWhitespace() {
+        while (pos < end) {
+            char ch = src.charAt(pos);
+            if (ch != ' ' && ch != '\n' && ch != '\r' && ch != '\t') {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    void expectEnd() {
+        skipWhitespace();
+        if (pos != end) {
+            throw error("Unexpected trailing content");
+        }
+    }
+
+    private void enter() {
+        if (++depth > MAX_DEPTH) {
+            throw error("Maximum nesting depth of " + MAX_DEPTH + " exceeded");
+        }
+    }
+
+    /**
+     * Offset of the next backslash at or after {@code from}, or {@code end}.
+     * A parser over a sub-region scans only that region, so that parsing
+     * many small regions of one large String stays linear.
+     */
+    private int escapeAfter(int from) {
+        if (nextEscape < from) {
+            if (end == src.length()) {
+                int found = src.indexOf('\\', from);
+                nextEscape = found < 0 ? end : found;
+            } else {
+                int p = from;
+                while (p < end && src.charAt(p) != '\\') {
+                    p++;
+                }
+                nextEscape = p;
+            }
+        }
+        return nextEscape;
+    }
+
+    private boolean isKeyword(int start, int stop, String keyword) {
+        return stop - start == keyword.length() && src.startsWith(keyword, start);
+    }
+
+    private static boolean isDelimiter(char ch) {
+        return ch == ',' || ch == '}' || ch == ']' || ch == ':'
+            || ch == ' ' || ch == '\n' || ch == '\r' || ch == '\t';
+    }
+
+    int position() {
+        return pos;
+    }
+
+    JSONParseException error(String message) {
+        return new JSONParseException(message + " at offset " + pos);
+    }
+}
@@ -0,0 +1,759 @@
+package src.parser;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import src.exception.JSONParseException;
+import src.utility.ByteSource;
+
+/**
+ * =============================================================================
+ * JSONPushParser.java
+ * =============================================================================
+ *
+ * Incremental, non-blocking UTF-8 parser for NIO code: the caller pushes
+ * {@link ByteBuffer} chunks as they arrive and the parser reports what it
+ * has recognised to a {@link Handler}.
+ *
+ * Chunks may be split anywhere, including inside a string, an escape
+ * sequence, a multi-byte character or a number. {@link #feed} consumes the
+ * whole chunk and never blocks; only the bytes of the current string or
+ * literal are kept between calls. The input may hold several top-level
+ * values, separated by whitespace (e.g. JSON Lines), each reported with
+ * {@link Handler#endDocument()}.
+ *
+ * Since a peer controls how long a string or number runs, the bytes kept
+ * for one token are capped, at {@link #DEFAULT_MAX_TOKEN_SIZE} unless the
+ * constructor is given another limit; a longer token fails the parse with
+ * "Token too large".
+ *
+ * {@link #ofTrees} builds every top-level value into the same tree that
+ * {@link Utf8Parser} produces, honouring the {@link ParseOptions}.
+ *
+ * A parser is used by one thread at a time. After an error it stays failed
+ * and rethrows the error.
+ *
+ * EXAMPLE USAGE:
+ * --------------
+ * JSONPushParser parser = JSONPushParser.ofTrees(request -> handle((Map<String, Object>) request));
+ * while (channel.read(buffer) > 0) {
+ *     parser.feed(buffer.flip());
+ *     buffer.clear();
+ * }
+ * parser.endOfInput();
+ *
+ * =============================================================================
+ */
+public final class JSONPushParser {
+
+    /** Default cap on the decoded bytes of one string or literal: 64 MiB. */
+    public static final int DEFAULT_MAX_TOKEN_SIZE = 64 * 1024 * 1024;
+
+    /**
+     * Receives the events of a {@link JSONPushParser}, on the thread that
+     * calls {@code feed} or {@code endOfInput}. All methods do nothing by
+     * default.
+     */
+    public interface Handler {
+
+        default void startObject() {
+        }
+
+        default void endObject() {
+        }
+
+        default void startArray() {
+        }
+
+        default void endArray() {
+        }
+
+        /** A member name; the member's value follows. */
+        default void name(String name) {
+        }
+
+        /** A String, Number, Boolean or null. */
+        default void value(Object value) {
+        }
+
+        /** A top-level value is complete. */
+        default void endDocument() {
+        }
+    }
+
+    // Syntactic expectations
+    private static final int EXPECT_VALUE = 0;
+    private static final int EXPECT_FIRST_VALUE_OR_END = 1;
+    private static final int EXPECT_FIRST_NAME_OR_END = 2;
+    private static final int EXPECT_NAME = 3;
+    private static final int EXPECT_COLON = 4;
+    private static final int EXPECT_COMMA_OR_END = 5;
+
+    // Token in progress
+    private static final int TOKEN_NONE = 0;
+    private static final int TOKEN_STRING = 1;
+    private static final int TOKEN_ESCAPE = 2;
+    private static final int TOKEN_UNICODE = 3;
+    private static final int TOKEN_LITERAL = 4;
+
+    private static final byte OBJECT = 1;
+    private static final byte ARRAY = 2;
+    private static final byte[] BYTE_ORDER_MARK = { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF };
+
+    private final Handler handler;
+    private final ParseOptions options;
+    private final KeyCache keyCache;
+    private final int maxTokenSize;
+
+    private byte[] stack = new byte[16];
+    private int depth;
+    private int expect = EXPECT_VALUE;
+
+    private int token = TOKEN_NONE;
+    private byte quote;
+    private boolean isName;
+    private boolean nonAscii;
+    private int hexDigits;
+    private int hexValue;
+    /** High half of an escaped surrogate pair waiting for its low half, or -1. */
+    private int pendingHigh = -1;
+    /** Text of the current string before its last unpaired surrogate, or null. */
+    private StringBuilder decoded;
+    private long tokenStart;
+
+    private byte[] scratch;
+    private ByteSource scratchSource;
+    private int length;
+
+    private long offset;
+    /** Bytes of a leading byte order mark skipped so far. */
+    private int bomLength;
+    private long documents;
+    private boolean ended;
+    private JSONParseException failure;
+
+    public JSONPushParser(Handler handler) {
+        this(handler, ParseOptions.DEFAULT);
+    }
+
+    /**
+     * Creates a parser that reports to {@code handler}. Of the options,
+     * lazy numbers and key interning apply to the reported values.
+     */
+    public JSONPushParser(Handler handler, ParseOptions options) {
+        this(handler, options, DEFAULT_MAX_TOKEN_SIZE);
+    }
+
+    /**
+     * Creates a parser that fails on any string or literal longer than
+     * {@code maxTokenSize} bytes once decoded.
+     *
+     * @throws IllegalArgumentException If {@code maxTokenSize} is not
+     *                                  within {@code [1, Integer.MAX_VALUE - 8]}.
+     */
+    public JSONPushParser(Handler handler, ParseOptions options, int maxTokenSize) {
+        if (maxTokenSize < 1 || maxTokenSize > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("maxTokenSize must be within [1, " + (Integer.MAX_VALUE - 8) + "]: " + maxTokenSize);
+        }
+        this.handler = handler;
+        this.options = options;
+        this.keyCache = options.keyCache();
+        this.maxTokenSize = maxTokenSize;
+        this.scratch = new byte[Math.min(64, maxTokenSize)];
+    }
+
+    /**
+     * Creates a parser that builds each top-level value into a tree of
+     * Maps, Lists and scalars and passes it to {@code consumer}.
+     */
+    public static JSONPushParser ofTrees(Consumer<Object> consumer) {
+        return ofTrees(consumer, ParseOptions.DEFAULT);
+    }
+
+    public static JSONPushParser ofTrees(Consumer<Object> consumer, ParseOptions options) {
+        return ofTrees(consumer, options, DEFAULT_MAX_TOKEN_SIZE);
+    }
+
+    public static JSONPushParser ofTrees(Consumer<Object> consumer, ParseOptions options, int maxTokenSize) {
+        return new JSONPushParser(new TreeHandler(consumer, options), options, maxTokenSize);
+    }
+
+    /**
+     * Parses the remaining bytes of {@code chunk}, leaving its position at
+     * its limit.
+     *
+     * @throws JSONParseException   If the input so far is malformed.
+     * @throws IllegalStateException If {@link #endOfInput()} was called.
+     */
+    public void feed(ByteBuffer chunk) {
+        checkUsable();
+        try {
+            while (chunk.hasRemaining()) {
+                if (token == TOKEN_STRING) {
+                    readStringRun(chunk);
+                    continue;
+                }
+                byte b = chunk.get();
+                offset++;
+                accept(b);
+            }
+        } catch (JSONParseException e) {
+            failure = e;
+            throw e;
+        }
+    }
+
+    /** Convenience for {@code feed(ByteBuffer.wrap(bytes, offset, length))}. */
+    public void feed(byte[] bytes, int offset, int length) {
+        feed(ByteBuffer.wrap(bytes, offset, length));
+    }
+
+    /**
+     * Signals that no more input follows, completing a trailing top-level
+     * number.
+     *
+     * @throws JSONParseException If the input ends inside a value or holds
+     *                            no value at all.
+     */
+    public void endOfInput() {
+        checkUsable();
+        ended = true;
+        try {
+            if (token == TOKEN_LITERAL && depth == 0) {
+                finishLiteral();
+            }
+            if (token != TOKEN_NONE && token != TOKEN_LITERAL) {
+                throw error("Unterminated string");
+            }
+            if (depth > 0) {
+                throw error(stack[depth - 1] == OBJECT ? "Unterminated object" : "Unterminated array");
+            }
+            if (documents == 0) {
+                throw error("Unexpected end of input");
+            }
+        } catch (JSONParseException e) {
+            failure = e;
+            throw e;
+        }
+    }
+
+    /** Number of top-level values completed so far. */
+    public long documentCount() {
+        return documents;
+    }
+
+    /** Number of bytes consumed so far. */
+    public long position() {
+        return offset;
+    }
+
+    // ------------------------------------------------------------------------
+    // 1. --------------------------- Structure -------------------------------
+    // ------------------------------------------------------------------------
+
+    private void accept(byte b) {
+        switch (token) {
+            case TOKEN_ESCAPE:
+                escape(b);
+                return;
+            case TOKEN_UNICODE:
+                unicode(b);
+                return;
+            case TOKEN_LITERAL:
+                if (!isDelimiter(b)) {
+                    append(b);
+                    return;
+                }
+                finishLiteral();
+                break; // the delimiter is structural
+            default:
+                break;
+        }
+        if (b == ' ' || b == '\n' || b == '\r' || b == '\t') {
+            return;
+        }
+        if (bomLength == offset - 1 && bomLength < BYTE_ORDER_MARK.length && b == BYTE_ORDER_MARK[bomLength]) {
+            bomLength++;
+            return;
+        }
+
+        switch (expect) {
+            case EXPECT_FIRST_VALUE_OR_END:
+                if (b == ']') {
+                    endContainer();
+                    return;
+                }
+                beginValue(b);
+                return;
+            case EXPECT_VALUE:
+                beginValue(b);
+                return;
+            case EXPECT_FIRST_NAME_OR_END:
+                if (b == '}') {
+                    endContainer();
+                    return;
+                }
+                beginName(b);
+                return;
+            case EXPECT_NAME:
+                beginName(b);
+                return;
+            case EXPECT_COLON:
+                if (b != ':') {
+                    throw errorAtLastByte("Expected ':' after key");
+                }
+                expect = EXPECT_VALUE;
+                return;
+            default: // EXPECT_COMMA_OR_END
+                boolean inObject = stack[depth - 1] == OBJECT;
+                if (b == ',') {
+                    expect = inObject ? EXPECT_NAME : EXPECT_VALUE;
+                } else if (b == (inObject ? '}' : ']')) {
+                    endContainer();
+                } else {
+                    throw errorAtLastByte(inObject ? "Expected ',' or '}' in object" : "Expected ',' or ']' in array");
+                }
+        }
+    }
+
+    private void beginValue(byte b) {
+        switch (b) {
+            case '{':
+                push(OBJECT);
+                handler.startObject();
+                expect = EXPECT_FIRST_NAME_OR_END;
+                return;
+            case '[':
+                push(ARRAY);
+                handler.startArray();
+                expect = EXPECT_FIRST_VALUE_OR_END;
+                return;
+            case '"':
+            case '\'':
+                beginString(b, false);
+                return;
+            default:
+                if (isDelimiter(b)) {
+                    throw errorAtLastByte("Unexpected character '" + (char) b + "'");
+                }
+                token = TOKEN_LITERAL;
+                tokenStart = offset - 1;
+                length = 0;
+                append(b);
+        }
+    }
+
+    private void beginName(byte b) {
+        if (b != '"' && b != '\'') {
+            throw errorAtLastByte("Expected string key");
+        }
+        beginString(b, true);
+    }
+
+    private void push(byte kind) {
+        if (depth >= JSONParser.MAX_DEPTH) {
+            throw errorAtLastByte("Maximum nesting depth of " + JSONParser.MAX_DEPTH + " exceeded");
+        }
+        if (depth == stack.length) {
+            stack = Arrays.copyOf(stack, depth * 2);
+        }
+        stack[depth++] = kind;
+    }
+
+    private void endContainer() {
+        if (stack[--depth] == OBJECT) {
+            handler.endObject();
+        } else {
+            handler.endArray();
+        }
+        endValue();
+    }
+
+    private void endValue() {
+        if (depth > 0) {
+            expect = EXPECT_COMMA_OR_END;
+            return;
+        }
+        documents++;
+        expect = EXPECT_VALUE;
+        handler.endDocument();
+    }
+
+    // ------------------------------------------------------------------------
+    // 2. ---------------------------- Tokens ---------------------------------
+    // ------------------------------------------------------------------------
+
+    private void beginString(byte quote, boolean isName) {
+        this.token = TOKEN_STRING;
+        this.quote = quote;
+        this.isName = isName;
+        this.nonAscii = false;
+        this.tokenStart = offset - 1;
+        this.length = 0;
+    }
+
+    /** Copies string bytes up to the next quote or backslash in one pass. */
+    private void readStringRun(ByteBuffer chunk) {
+        while (chunk.hasRemaining()) {
+            byte b = chunk.get();
+            offset++;
+            if (b == quote) {
+                flushHighSurrogate();
+                finishString();
+                return;
+            }
+            if (b == '\\') {
+                token = TOKEN_ESCAPE; // a pending high surrogate may pair with this escape
+                return;
+            }
+            if (pendingHigh >= 0) {
+                flushHighSurrogate();
+            }
+            if (b < 0) {
+                nonAscii = true;
+            }
+            append(b);
+        }
+    }
+
+    private void escape(byte esc) {
+        int code;
+        switch (esc) {
+            case '"':  code = '"';  break;
+            case '\'': code = '\''; break;
+            case '\\': code = '\\'; break;
+            case '/':  code = '/';  break;
+            case 'b':  code = '\b'; break;
+            case 'f':  code = '\f'; break;
+            case 'n':  code = '\n'; break;
+            case 'r':  code = '\r'; break;
+            case 't':  code = '\t'; break;
+            case 'u':
+                token = TOKEN_UNICODE;
+                hexDigits = 0;
+                hexValue = 0;
+                return;
+            default:
+                throw errorAtLastByte("Invalid escape character '" + (char) esc + "'");
+        }
+        flushHighSurrogate();
+        appendCodePoint(code);
+        token = TOKEN_STRING;
+    }
+
+    private void unicode(byte b) {
+        int digit = Character.digit(b, 16);
+        if (digit < 0) {
+            throw errorAtLastByte("Invalid unicode escape");
+        }
+        hexValue = (hexValue << 4) | digit;
+        if (++hexDigits < 4) {
+            return;
+        }
+        token = TOKEN_STRING;
+        char ch = (char) hexValue;
+        if (pendingHigh >= 0 && Character.isLowSurrogate(ch)) {
+            int code = Character.toCodePoint((char) pendingHigh, ch);
+            pendingHigh = -1;
+            appendCodePoint(code);
+        } else if (Character.isHighSurrogate(ch)) {
+            flushHighSurrogate();
+            pendingHigh = ch; // may pair with the next escape
+        } else {
+            flushHighSurrogate(); // a lone high surrogate comes first
+            if (Character.isLowSurrogate(ch)) {
+                appendSurrogate(ch);
+            } else {
+                appendCodePoint(ch);
+            }
+        }
+    }
+
+    private void flushHighSurrogate() {
+        if (pendingHigh >= 0) {
+            int high = pendingHigh;
+            pendingHigh = -1;
+            appendSurrogate((char) high);
+        }
+    }
+
+    /**
+     * Appends an unpaired surrogate, which has no UTF-8 form, as a char
+     * after the text collected so far, as the other parsers keep it.
+     */
+    private void appendSurrogate(char surrogate) {
+        if (decoded == null) {
+            decoded = new StringBuilder(length + 16);
+        }
+        decoded.append(decodeScratch()).append(surrogate);
+        length = 0;
+        if (decoded.length() > maxTokenSize) {
+            throw error("Token too large: more than " + maxTokenSize + " bytes", tokenStart);
+        }
+    }
+
+    private void finishString() {
+        token = TOKEN_NONE;
+        if (isName) {
+            String name = keyCache != null && decoded == null
+                ? keyCache.get(scratchSource(), 0, length, nonAscii) : decodeString();
+            handler.name(name);
+            expect = EXPECT_COLON;
+            return;
+        }
+        handler.value(decodeString());
+        endValue();
+    }
+
+    private void finishLiteral() {
+        token = TOKEN_NONE;
+        Object value;
+        if (isKeyword("true")) {
+            value = Boolean.TRUE;
+        } else if (isKeyword("false")) {
+            value = Boolean.FALSE;
+        } else if (isKeyword("null")) {
+            value = null;
+        } else if (options.lazyNumbers()) {
+            String text = new String(scratch, 0, length, StandardCharsets.ISO_8859_1);
+            value = JSONNumbers.isNumber(text, 0, length) ? new LazyNumber(text) : null;
+            if (value == null) {
+                throw error("Invalid literal", tokenStart);
+            }
+        } else {
+            value = JSONNumbers.parse(scratch, 0, length);
+            if (value == null) {
+                throw error("Invalid literal", tokenStart);
+            }
+        }
+        handler.value(value);
+        endValue();
+    }
+
+    // ------------------------------------------------------------------------
+    // 3. --------------------------- Helpers ---------------------------------
+    // ------------------------------------------------------------------------
+
+    private void append(byte b) {
+        if (length == scratch.length) {
+            grow(length + 1);
+        }
+        scratch[length++] = b;
+    }
+
+    private void appendCodePoint(int code) {
+        int size = code < 0x80 ? 1 : code < 0x800 ? 2 : code < 0x10000 ? 3 : 4;
+        if (length + size > scratch.length) {
+            grow(length + size);
+        }
+        if (code >= 0x80) {
+            nonAscii = true;
+        }
+        if (code < 0x80) {
+            scratch[length++] = (byte) code;
+        } else if (code < 0x800) {
+            scratch[length++] = (byte) (0xC0 | (code >> 6));
+            scratch[length++] = (byte) (0x80 | (code & 0x3F));
+        } else if (code < 0x10000) {
+            scratch[length++] = (byte) (0xE0 | (code >> 12));
+            scratch[length++] = (byte) (0x80 | ((code >> 6) & 0x3F));
+            scratch[length++] = (byte) (0x80 | (code & 0x3F));
+        } else {
+            scratch[length++] = (byte) (0xF0 | (code >> 18));
+            scratch[length++] = (byte) (0x80 | ((code >> 12) & 0x3F));
+            scratch[length++] = (byte) (0x80 | ((code >> 6) & 0x3F));
+            scratch[length++] = (byte) (0x80 | (code & 0x3F));
+        }
+    }
+
+    private void grow(int capacity) {
+        if (capacity > maxTokenSize - (decoded == null ? 0 : decoded.length())) {
+            throw error("Token too large: more than " + maxTokenSize + " bytes", tokenStart);
+        }
+        scratch = Arrays.copyOf(scratch, (int) Math.min(maxTokenSize, Math.max(capacity, scratch.length * 2L)));
+        scratchSource = null;
+    }
+
+    private ByteSource scratchSource() {
+        if (scratchSource == null) {
+            scratchSource = ByteSource.wrap(scratch);
+        }
+        return scratchSource;
+    }
+
+    private String decodeString() {
+        if (decoded == null) {
+            return decodeScratch();
+        }
+        String text = decoded.append(decodeScratch()).toString();
+        decoded = null;
+        return text;
+    }
+
+    private String decodeScratch() {
+        return new String(scratch, 0, length, nonAscii ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1);
+    }
+
+    private boolean isKeyword(String keyword) {
+        if (length != keyword.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (scratch[i] != keyword.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDelimiter(byte b) {
+        return b == ',' || b == '}' || b == ']' || b == ':'
+            || b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    private void checkUsable() {
+        if (failure != null) {
+            throw failure;
+        }
+        if (ended) {
+            throw new IllegalStateException("endOfInput() was already called");
+        }
+    }
+
+    private JSONParseException errorAtLastByte(String message) {
+        return error(message, offset - 1);
+    }
+
+    private JSONParseException error(String message) {
+        return error(message, offset);
+    }
+
+    private static JSONParseException error(String message, long at) {
+        return new JSONParseException(message + " at byte offset " + at);
+    }
+
+    // ------------------------------------------------------------------------
+    // 4. ------------------------- Tree Building -----------------------------
+    // ------------------------------------------------------------------------
+
+    /** Builds each top-level value from the events, like {@link Utf8Parser}. */
+    private static final class TreeHandler implements Handler {
+
+        private final Consumer<Object> consumer;
+        private final ParseOptions options;
+        private final ArrayDeque<Container> open = new ArrayDeque<>();
+        private Object document;
+
+        TreeHandler(Consumer<Object> consumer, ParseOptions options) {
+            this.consumer = consumer;
+            this.options = options;
+        }
+
+        @Override
+        public void startObject() {
+            open.push(new Container(true, options));
+        }
+
+        @Override
+        public void startArray() {
+            open.push(new Container(false, options));
+        }
+
+        @Override
+        public void endObject() {
+            add(open.pop().build());
+        }
+
+        @Override
+        public void endArray() {
+            add(open.pop().build());
+        }
+
+        @Override
+        public void name(String name) {
+            open.peek().name = name;
+        }
+
+        @Override
+        public void value(Object value) {
+            add(value);
+        }
+
+        @Override
+        public void endDocument() {
+            Object value = document;
+            document = null;
+            consumer.accept(value);
+        }
+
+        private void add(Object value) {
+            Container parent = open.peek();
+            if (parent == null) {
+                document = value;
+            } else {
+                parent.add(value);
+            }
+        }
+    }
+
+    /** An object or array under construction. */
+    private static final class Container {
+
+        private final boolean isObject;
+        private Map<String, Object> map;
+        private CompactMap.Builder compact;
+        private List<Object> list;
+        private NumericArrayBuilder numbers;
+        private int count;
+        String name;
+
+        Container(boolean isObject, ParseOptions options) {
+            this.isObject = isObject;
+            if (isObject) {
+                if (options.compactObjects()) {
+                    compact = new CompactMap.Builder();
+                } else {
+                    map = new HashMap<>();
+                }
+            } else if (options.primitiveArrays()) {
+                numbers = new NumericArrayBuilder();
+            } else {
+                list = new ArrayList<>();
+            }
+        }
+
+        void add(Object value) {
+            count++;
+            if (isObject) {
+                if (compact != null) {
+                    compact.put(name, value);
+                } else {
+                    map.put(name, value);
+                }
+            } else if (numbers == null) {
+                list.add(value);
+            } else if (!numbers.add(value)) {
+                list = numbers.toList();
+                list.add(value);
+                numbers = null;
+            }
+        }
+
+        Object build() {
+            if (isObject) {
+                return compact != null ? compact.build() : map;
+            }
+            if (numbers != null) {
+                return count == 0 ? new ArrayList<>() : numbers.build();
+            }
+            return list;
+        }
+    }
+}
@@ -0,0 +1,676 @@
+package src.parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import src.exception.JSONFileException;
+import src.exception.JSONParseException;
+
+/**
+ * =============================================================================
+ * JSONReader.java
+ * =============================================================================
+ *
+ * Streaming pull parser that reads JSON tokens from a {@link Reader} or
+ * {@link InputStream} through a fixed-size character buffer.
+ *
+ * Only the buffer and the nesting stack are kept in memory, so documents of
+ * any size can be walked in constant memory. Values are decoded only when
+ * they are asked for: {@link #skipValue()} steps over strings and whole
+ * subtrees without materializing them.
+ *
+ * EXAMPLE USAGE:
+ * --------------
+ * try (JSONReader reader = new JSONReader(new FileInputStream(file))) {
+ *     reader.beginObject();
+ *     while (reader.hasNext()) {
+ *         String name = reader.nextName();
+ *         if (name.equals("id")) {
+ *             long id = reader.nextLong();
+ *         } else {
+ *             reader.skipValue();
+ *         }
+ *     }
+ *     reader.endObject();
+ * }
+ *
+ * =============================================================================
+ */
+public class JSONReader implements Closeable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_ARRAY = 2;
+    private static final int NONEMPTY_ARRAY = 3;
+    private static final int EMPTY_OBJECT = 4;
+    private static final int DANGLING_NAME = 5;
+    private static final int NONEMPTY_OBJECT = 6;
+
+    private final Reader in;
+    private final ParseOptions options;
+    private final KeyCache keyCache;
+    private final char[] buf;
+    private int pos;
+    private int limit;
+
+    /** Number of characters discarded from the front of the buffer so far. */
+    private long consumed;
+
+    private int[] stack = new int[32];
+    private int stackSize = 1;
+
+    private JSONToken peeked;
+    private char peekedQuote;
+    private String tokenValue;
+
+    /** Scratch space for literals and strings that span buffer refills. */
+    private final StringBuilder scratch = new StringBuilder();
+
+    public JSONReader(Reader in) {
+        this(in, DEFAULT_BUFFER_SIZE);
+    }
+
+    public JSONReader(Reader in, int bufferSize) {
+        this(in, bufferSize, ParseOptions.DEFAULT);
+    }
+
+    public JSONReader(Reader in, int bufferSize, ParseOptions options) {
+        this(in, new char[checkBufferSize(bufferSize)], 0, options);
+    }
+
+    /**
+     * Reads JSON from a String. The String's characters become the buffer,
+     * so the input is copied once and never refilled.
+     */
+    public JSONReader(String src, ParseOptions options) {
+        this(Reader.nullReader(), toBuffer(src), src.length(), options);
+    }
+
+    private JSONReader(Reader in, char[] buf, int limit, ParseOptions options) {
+        if (in == null) {
+            throw new NullPointerException("in == null");
+        }
+        this.in = in;
+        this.options = options;
+        this.keyCache = options.keyCache();
+        this.buf = buf;
+        this.limit = limit;
+        this.stack[0] = EMPTY_DOCUMENT;
+    }
+
+    private static int checkBufferSize(int bufferSize) {
+        if (bufferSize < 16) {
+            throw new IllegalArgumentException("Buffer size must be at least 16: " + bufferSize);
+        }
+        return bufferSize;
+    }
+
+    private static char[] toBuffer(String src) {
+        char[] chars = new char[Math.max(src.length(), 16)];
+        src.getChars(0, src.length(), chars, 0);
+        return chars;
+    }
+
+    /**
+     * Reads UTF-8 encoded JSON from the given stream.
+     */
+    public JSONReader(InputStream in) {
+        this(in, ParseOptions.DEFAULT);
+    }
+
+    public JSONReader(InputStream in, ParseOptions options) {
+        this(new InputStreamReader(in, StandardCharsets.UTF_8), DEFAULT_BUFFER_SIZE, options);
+    }
+
+    // ------------------------------------------------------------------------
+    // 1. ------------------------ Token Navigation ---------------------------
+    // ------------------------------------------------------------------------
+
+    /**
+     * Returns the type of the next token without consuming it.
+     */
+    public JSONToken peek() {
+        if (peeked == null) {
+            peeked = doPeek();
+        }
+        return peeked;
+    }
+
+    /**
+     * Consumes the next token, whatever its kind, and returns its type. The
+     * decoded text of {@code NAME}, {@code STRING}, {@code NUMBER} and
+     * {@code BOOLEAN} tokens is available from {@link #tokenValue()}.
+     */
+    public JSONToken nextToken() {
+        JSONToken token = peek();
+        tokenValue = null;
+        switch (token) {
+            case BEGIN_OBJECT: beginObject(); break;
+            case END_OBJECT:   endObject();   break;
+            case BEGIN_ARRAY:  beginArray();  break;
+            case END_ARRAY:    endArray();    break;
+            case NAME:         tokenValue = nextName();   break;
+            case STRING:
+            case NUMBER:       tokenValue = nextString(); break;
+            case BOOLEAN:      tokenValue = String.valueOf(nextBoolean()); break;
+            case NULL:         nextNull();    break;
+            case END_DOCUMENT: break;
+        }
+        return token;
+    }
+
+    /**
+     * Text of the last value token consumed through {@link #nextToken()}.
+     */
+    public String tokenValue() {
+        return tokenValue;
+    }
+
+    public void beginObject() {
+        expect(JSONToken.BEGIN_OBJECT);
+        push(EMPTY_OBJECT);
+        peeked = null;
+    }
+
+    public void endObject() {
+        expect(JSONToken.END_OBJECT);
+        stackSize--;
+        peeked = null;
+    }
+
+    public void beginArray() {
+        expect(JSONToken.BEGIN_ARRAY);
+        push(EMPTY_ARRAY);
+        peeked = null;
+    }
+
+    public void endArray() {
+        expect(JSONToken.END_ARRAY);
+        stackSize--;
+        peeked = null;
+    }
+
+    /**
+     * Returns true if the current object or array has another element.
+     */
+    public boolean hasNext() {
+        JSONToken token = peek();
+        return token != JSONToken.END_OBJECT && token != JSONToken.END_ARRAY && token != JSONToken.END_DOCUMENT;
+    }
+
+    // ------------------------------------------------------------------------
+    // 2. ------------------------- Value Access ------------------------------
+    // ------------------------------------------------------------------------
+
+    public String nextName() {
+        expect(JSONToken.NAME);
+        peeked = null;
+        return readString(peekedQuote, keyCache);
+    }
+
+    /**
+     * Returns the next string value. Numbers are returned as their text.
+     */
+    public String nextString() {
+        JSONToken token = peek();
+        peeked = null;
+        if (token == JSONToken.STRING) {
+            return readString(peekedQuote, null);
+        }
+        if (token == JSONToken.NUMBER) {
+            readLiteral(true);
+            if (!JSONNumbers.isNumber(scratch, 0, scratch.length())) {
+                throw error("Invalid number '" + scratch + "'");
+            }
+            return scratch.toString();
+        }
+        peeked = token;
+        throw error("Expected STRING but was " + token);
+    }
+
+    public boolean nextBoolean() {
+        expect(JSONToken.BOOLEAN);
+        peeked = null;
+        readLiteral(true);
+        if (scratchEquals("true")) return true;
+        if (scratchEquals("false")) return false;
+        throw error("Invalid literal '" + scratch + "'");
+    }
+
+    public void nextNull() {
+        expect(JSONToken.NULL);
+        peeked = null;
+        readLiteral(true);
+        if (!scratchEquals("null")) {
+            throw error("Invalid literal '" + scratch + "'");
+        }
+    }
+
+    /**
+     * Returns the next number as a {@code Long}, {@code Double}, or, for
+     * values that do not fit, {@code BigInteger}/{@code BigDecimal}. The digits
+     * are converted without creating an intermediate String.
+     */
+    public Number nextNumber() {
+        expect(JSONToken.NUMBER);
+        peeked = null;
+        readLiteral(true);
+        if (options.lazyNumbers()) {
+            if (!JSONNumbers.isNumber(scratch, 0, scratch.length())) {
+                throw error("Invalid number '" + scratch + "'");
+            }
+            return new LazyNumber(scratch.toString());
+        }
+        Number number = JSONNumbers.parse(scratch, 0, scratch.length());
+        if (number == null) {
+            throw error("Invalid number '" + scratch + "'");
+        }
+        return number;
+    }
+
+    public long nextLong() {
+        Number number = nextNumber();
+        if (number instanceof LazyNumber lazy) {
+            number = lazy.value();
+        }
+        if (!(number instanceof Long)) {
+            throw error("Expected a long but was " + number);
+        }
+        return number.longValue();
+    }
+
+    public double nextDouble() {
+        return nextNumber().doubleValue();
+    }
+
+    /**
+     * Skips the next value, including whole objects and arrays, without
+     * decoding any of its content. When positioned on a name, the name and
+     * its value are skipped.
+     */
+    public void skipValue() {
+        if (peek() == JSONToken.NAME) {
+            peeked = null;
+            skipString(peekedQuote);
+        }
+        int count = 0;
+        do {
+            JSONToken token = peek();
+            switch (token) {
+                case BEGIN_OBJECT: beginObject(); count++; break;
+                case BEGIN_ARRAY:  beginArray();  count++; break;
+                case END_OBJECT:   endObject();   count--; break;
+                case END_ARRAY:    endArray();    count--; break;
+                case NAME:
+                case STRING:
+                    peeked = null;
+                    skipString(peekedQuote);
+                    break;
+                case NUMBER:
+                case BOOLEAN:
+                case NULL:
+                    peeked = null;
+                    readLiteral(false);
+                    break;
+                case END_DOCUMENT:
+                    throw error("Unexpected end of input");
+            }
+        } while (count > 0);
+    }
+
+    /**
+     * Reads the next value as a tree of {@code HashMap}, {@code ArrayList} and
+     * scalar values, the same shape {@link JSONParser} produces.
+     */
+    public Object readTree() {
+        switch (peek()) {
+            case BEGIN_OBJECT: {
+                CompactMap.Builder compact = options.compactObjects() ? new CompactMap.Builder() : null;
+                Map<String, Object> map = compact == null ? new HashMap<>() : null;
+                beginObject();
+                while (hasNext()) {
+                    String key = nextName();
+                    if (compact != null) {
+                        compact.put(key, readTree());
+                    } else {
+                        map.put(key, readTree());
+                    }
+                }
+                endObject();
+                return compact != null ? compact.build() : map;
+            }
+            case BEGIN_ARRAY: {
+                beginArray();
+                NumericArrayBuilder numbers = options.primitiveArrays() && hasNext() ? new NumericArrayBuilder() : null;
+                List<Object> list = numbers == null ? new ArrayList<>() : null;
+                while (hasNext()) {
+                    Object value = readTree();
+                    if (numbers == null) {
+                        list.add(value);
+                    } else if (!numbers.add(value)) {
+                        list = numbers.toList();
+                        list.add(value);
+                        numbers = null;
+                    }
+                }
+                endArray();
+                return numbers != null ? numbers.build() : list;
+            }
+            case STRING:
+                return nextString();
+            case NUMBER:
+                return nextNumber();
+            case BOOLEAN:
+                return nextBoolean();
+            case NULL:
+                nextNull();
+                return null;
+            default:
+                throw error("Expected a value but was " + peek());
+        }
+    }
+
+    @Override
+    public void close() {
+        peeked = null;
+        stackSize = 0;
+        try {
+            in.close();
+        } catch (IOException e) {
+            throw new JSONFileException("Failed to close input: " + e.getMessage());
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // 3. --------------------------- Scanning --------------------------------
+    // ------------------------------------------------------------------------
+
+    private JSONToken doPeek() {
+        if (stackSize == 0) {
+            throw new IllegalStateException("JSONReader is closed");
+        }
+        int top = stackSize - 1;
+        int scope = stack[top];
+        int ch;
+
+        switch (scope) {
+            case EMPTY_ARRAY:
+                stack[top] = NONEMPTY_ARRAY;
+                ch = nextNonWhitespace();
+                if (ch == ']') return JSONToken.END_ARRAY;
+                if (ch != -1) pos--;
+                break;
+            case NONEMPTY_ARRAY:
+                ch = nextNonWhitespace();
+                if (ch == ']') return JSONToken.END_ARRAY;
+                if (ch != ',') throw error("Expected ',' or ']' in array");
+                break;
+            case EMPTY_OBJECT:
+            case NONEMPTY_OBJECT:
+                stack[top] = DANGLING_NAME;
+                ch = nextNonWhitespace();
+                if (ch == '}') return JSONToken.END_OBJECT;
+                if (scope == NONEMPTY_OBJECT) {
+                    if (ch != ',') throw error("Expected ',' or '}' in object");
+                    ch = nextNonWhitespace();
+                }
+                if (ch != '"' && ch != '\'') throw error("Expected string key");
+                peekedQuote = (char) ch;
+                return JSONToken.NAME;
+            case DANGLING_NAME:
+                stack[top] = NONEMPTY_OBJECT;
+                ch = nextNonWhitespace();
+                if (ch != ':') throw error("Expected ':' after key");
+                break;
+            case EMPTY_DOCUMENT:
+                stack[top] = NONEMPTY_DOCUMENT;
+                break;
+            case NONEMPTY_DOCUMENT:
+                ch = nextNonWhitespace();
+                if (ch == -1) return JSONToken.END_DOCUMENT;
+                throw error("Unexpected trailing content");
+            default:
+                throw new IllegalStateException("Corrupt reader state: " + scope);
+        }
+
+        ch = nextNonWhitespace();
+        switch (ch) {
+            case -1:
+                throw error("Unexpected end of input");
+            case '{':
+                return JSONToken.BEGIN_OBJECT;
+            case '[':
+                return JSONToken.BEGIN_ARRAY;
+            case '"':
+            case '\'':
+                peekedQuote = (char) ch;
+                return JSONToken.STRING;
+            case 't':
+            case 'f':
+                pos--;
+                return JSONToken.BOOLEAN;
+            case 'n':
+                pos--;
+                return JSONToken.NULL;
+            default:
+                if (ch == '-' || (ch >= '0' && ch <= '9')) {
+                    pos--;
+                    return JSONToken.NUMBER;
+                }
+                pos--;
+                throw error("Unexpected character '" + (char) ch + "'");
+        }
+    }
+
+    /**
+     * Reads a string body; the opening quote has already been consumed.
+     * Strings that sit unescaped in the buffer go through {@code cache} when
+     * one is given.
+     */
+    private String readString(char quote, KeyCache cache) {
+        StringBuilder sb = null;
+        while (true) {
+            int p = pos;
+            int start = p;
+            while (p < limit) {
+                char ch = buf[p++];
+                if (ch == quote) {
+                    pos = p;
+                    if (sb == null) {
+                        return cache != null ? cache.get(buf, start, p - start - 1) : new String(buf, start, p - start - 1);
+                    }
+                    return sb.append(buf, start, p - start - 1).toString();
+                }
+                if (ch == '\\') {
+                    if (sb == null) {
+                        sb = new StringBuilder(Math.max(16, (p - start) * 2));
+                    }
+                    sb.append(buf, start, p - start - 1);
+                    pos = p;
+                    sb.append(readEscape());
+                    p = pos;
+                    start = p;
+                }
+            }
+            if (sb == null) {
+                sb = new StringBuilder(Math.max(16, (p - start) * 2));
+            }
+            sb.append(buf, start, p - start);
+            pos = p;
+            if (!fill(1)) {
+                throw error("Unterminated string");
+            }
+        }
+    }
+
+    private void skipString(char quote) {
+        while (true) {
+            int p = pos;
+            while (p < limit) {
+                char ch = buf[p++];
+                if (ch == quote) {
+                    pos = p;
+                    return;
+                }
+                if (ch == '\\') {
+                    pos = p;
+                    readEscape();
+                    p = pos;
+                }
+            }
+            pos = p;
+            if (!fill(1)) {
+                throw error("Unterminated string");
+            }
+        }
+    }
+
+    /**
+     * Decodes an escape sequence; the backslash has already been consumed.
+     */
+    private char readEscape() {
+        if (pos == limit && !fill(1)) {
+            throw error("Unterminated escape sequence");
+        }
+        char esc = buf[pos++];
+        switch (esc) {
+            case '"':
+            case '\'':
+            case '\\':
+            case '/':
+                return esc;
+            case 'b': return '\b';
+            case 'f': return '\f';
+            case 'n': return '\n';
+            case 'r': return '\r';
+            case 't': return '\t';
+            case 'u':
+                if (limit - pos < 4 && !fill(4)) {
+                    throw error("Truncated unicode escape");
+                }
+                int code = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(buf[pos], 16);
+                    if (digit < 0) {
+                        throw error("Invalid unicode escape");
+                    }
+                    code = (code << 4) | digit;
+                    pos++;
+                }
+                return (char) code;
+            default:
+                pos--;
+                throw error("Invalid escape character '" + esc + "'");
+        }
+    }
+
+    /**
+     * Reads a bare literal up to the next delimiter into {@code scratch}, or
+     * just skips it when {@code keep} is false.
+     */
+    private void readLiteral(boolean keep) {
+        scratch.setLength(0);
+        while (true) {
+            int p = pos;
+            int start = p;
+            while (p < limit && !isDelimiter(buf[p])) {
+                p++;
+            }
+            if (keep) {
+                scratch.append(buf, start, p - start);
+            }
+            pos = p;
+            if (p < limit || !fill(1)) {
+                break;
+            }
+        }
+    }
+
+    private boolean scratchEquals(String keyword) {
+        int length = keyword.length();
+        if (scratch.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (scratch.charAt(i) != keyword.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int nextNonWhitespace() {
+        while (true) {
+            if (pos == limit && !fill(1)) {
+                return -1;
+            }
+            char ch = buf[pos++];
+            if (ch != ' ' && ch != '\n' && ch != '\r' && ch != '\t') {
+                return ch;
+            }
+        }
+    }
+
+    /**
+     * Ensures at least {@code minimum} unread characters are buffered,
+     * compacting the buffer first. Returns false if the input ends before
+     * that many characters are available.
+     */
+    private boolean fill(int minimum) {
+        if (pos > 0) {
+            consumed += pos;
+            limit -= pos;
+            System.arraycopy(buf, pos, buf, 0, limit);
+            pos = 0;
+        }
+        try {
+            while (limit < minimum) {
+                int read = in.read(buf, limit, buf.length - limit);
+                if (read == -1) {
+                    return false;
+                }
+                limit += read;
+            }
+        } catch (IOException e) {
+            throw new JSONFileException("Failed to read input: " + e.getMessage());
+        }
+        return true;
+    }
+
+    private void push(int scope) {
+        if (stackSize > JSONParser.MAX_DEPTH) {
+            throw error("Maximum nesting depth of " + JSONParser.MAX_DEPTH + " exceeded");
+        }
+        if (stackSize == stack.length) {
+            stack = Arrays.copyOf(stack, stackSize * 2);
+        }
+        stack[stackSize++] = scope;
+    }
+
+    private void expect(JSONToken expected) {
+        JSONToken token = peek();
+        if (token != expected) {
+            throw error("Expected " + expected + " but was " + token);
+        }
+    }
+
+    private static boolean isDelimiter(char ch) {
+        return ch == ',' || ch == '}' || ch == ']' || ch == ':'
+            || ch == ' ' || ch == '\n' || ch == '\r' || ch == '\t';
+    }
+
+    private JSONParseException error(String message) {
+        return new JSONParseException(message + " at offset " + (consumed + pos));
+    }
+}
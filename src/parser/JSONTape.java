@@ -0,0 +1,285 @@
+package src.parser;
+
+import java.util.Arrays;
+
+import src.exception.JSONParseException;
+
+/**
+ * =============================================================================
+ * JSONTape.java
+ * =============================================================================
+ *
+ * Compact structural index ("tape") over a JSON document, used by the lazy
+ * loading mode {@code NSON.loadsLazy()}.
+ *
+ * Building the tape is a single pass that records, for every token, its
+ * offset in the source and a link:
+ * - open brackets link to the index of their matching close bracket, and
+ *   close brackets back to their open bracket
+ * - strings link to the offset of their closing quote, complemented
+ *   ({@code ~offset}) when the string contains escapes
+ * - numbers and literals link to the offset just past their last character
+ *
+ * Separators are checked while building but not stored. With the links in
+ * place, a whole subtree is skipped in O(1), so {@link LazyObject} and
+ * {@link LazyArray} can find the few values a caller touches and only
+ * materialize those. Scalars are decoded, and their syntax checked, when
+ * they are first read.
+ *
+ * =============================================================================
+ */
+public final class JSONTape {
+
+    private static final int EXPECT_VALUE = 0;
+    private static final int VALUE_OR_CLOSE = 1;
+    private static final int KEY_OR_CLOSE = 2;
+    private static final int EXPECT_KEY = 3;
+    private static final int EXPECT_COLON = 4;
+    private static final int AFTER_VALUE = 5;
+
+    private final String src;
+    private final ParseOptions options;
+    private int[] offsets;
+    private int[] links;
+    private int count;
+
+    /** Offset of the next backslash at or after the scan position, or the input length. */
+    private int nextEscape = -1;
+
+    private JSONTape(String src, ParseOptions options) {
+        this.src = src;
+        this.options = options;
+        int capacity = Math.max(16, src.length() / 8);
+        this.offsets = new int[capacity];
+        this.links = new int[capacity];
+    }
+
+    /**
+     * Indexes {@code src}. Structural errors (unbalanced brackets, missing
+     * separators, unterminated strings) are reported here; malformed
+     * scalars are reported when they are read.
+     */
+    public static JSONTape build(String src, ParseOptions options) {
+        JSONTape tape = new JSONTape(src, options);
+        tape.index();
+        return tape;
+    }
+
+    /**
+     * Returns the document root: a {@link LazyObject}, a {@link LazyArray},
+     * or a decoded scalar.
+     */
+    public Object root() {
+        return value(0);
+    }
+
+    public int tokenCount() {
+        return count;
+    }
+
+    // ------------------------------------------------------------------------
+    // 1. --------------------------- Indexing --------------------------------
+    // ------------------------------------------------------------------------
+
+    private void index() {
+        int n = src.length();
+        int[] stack = new int[32];
+        int depth = 0;
+        int state = EXPECT_VALUE;
+        int i = 0;
+
+        while (true) {
+            while (i < n) {
+                char ch = src.charAt(i);
+                if (ch != ' ' && ch != '\n' && ch != '\r' && ch != '\t') break;
+                i++;
+            }
+            if (i == n) {
+                if (depth == 0 && state == AFTER_VALUE) {
+                    return;
+                }
+                throw error("Unexpected end of input", i);
+            }
+            char ch = src.charAt(i);
+
+            switch (state) {
+                case VALUE_OR_CLOSE:
+                case KEY_OR_CLOSE:
+                    if (ch == (state == VALUE_OR_CLOSE ? ']' : '}')) {
+                        close(stack[--depth], i);
+                        i++;
+                        state = AFTER_VALUE;
+                        break;
+                    }
+                    state = state == KEY_OR_CLOSE ? EXPECT_KEY : EXPECT_VALUE;
+                    continue;
+                case EXPECT_VALUE:
+                    if (ch == '{' || ch == '[') {
+                        if (depth == JSONParser.MAX_DEPTH) {
+                            throw error("Maximum nesting depth of " + JSONParser.MAX_DEPTH + " exceeded", i);
+                        }
+                        if (depth == stack.length) {
+                            stack = Arrays.copyOf(stack, depth * 2);
+                        }
+                        stack[depth++] = add(i, -1);
+                        state = ch == '{' ? KEY_OR_CLOSE : VALUE_OR_CLOSE;
+                        i++;
+                    } else if (ch == '"' || ch == '\'') {
+                        i = indexString(i);
+                        state = AFTER_VALUE;
+                    } else {
+                        int start = i;
+                        while (i < n && !isDelimiter(src.charAt(i))) {
+                            i++;
+                        }
+                        if (i == start) {
+                            throw error("Unexpected character '" + ch + "'", i);
+                        }
+                        add(start, i);
+                        state = AFTER_VALUE;
+                    }
+                    break;
+                case EXPECT_KEY:
+                    if (ch != '"' && ch != '\'') {
+                        throw error("Expected string key", i);
+                    }
+                    i = indexString(i);
+                    state = EXPECT_COLON;
+                    break;
+                case EXPECT_COLON:
+                    if (ch != ':') {
+                        throw error("Expected ':' after key", i);
+                    }
+                    i++;
+                    state = EXPECT_VALUE;
+                    break;
+                case AFTER_VALUE: {
+                    if (depth == 0) {
+                        throw error("Unexpected trailing content", i);
+                    }
+                    boolean inArray = src.charAt(offsets[stack[depth - 1]]) == '[';
+                    if (ch == ',') {
+                        state = inArray ? EXPECT_VALUE : EXPECT_KEY;
+                    } else if (ch == (inArray ? ']' : '}')) {
+                        close(stack[--depth], i);
+                    } else {
+                        throw error(inArray ? "Expected ',' or ']' in array" : "Expected ',' or '}' in object", i);
+                    }
+                    i++;
+                    break;
+                }
+                default:
+                    throw new IllegalStateException("Corrupt tape state: " + state);
+            }
+        }
+    }
+
+    /**
+     * Records a string token starting at the quote at {@code start} and
+     * returns the offset just past its closing quote.
+     */
+    private int indexString(int start) {
+        char quote = src.charAt(start);
+        boolean escaped = false;
+        int p = start + 1;
+        while (true) {
+            int close = src.indexOf(quote, p);
+            if (close < 0) {
+                throw error("Unterminated string", start);
+            }
+            int backslash = escapeAfter(p);
+            if (backslash > close) {
+                add(start, escaped ? ~close : close);
+                return close + 1;
+            }
+            escaped = true;
+            p = backslash + 2;
+        }
+    }
+
+    private int escapeAfter(int from) {
+        if (nextEscape < from) {
+            int found = src.indexOf('\\', from);
+            nextEscape = found < 0 ? src.length() : found;
+        }
+        return nextEscape;
+    }
+
+    private int add(int offset, int link) {
+        if (count == offsets.length) {
+            offsets = Arrays.copyOf(offsets, count * 2);
+            links = Arrays.copyOf(links, count * 2);
+        }
+        offsets[count] = offset;
+        links[count] = link;
+        return count++;
+    }
+
+    private void close(int open, int offset) {
+        int index = add(offset, open);
+        links[open] = index;
+    }
+
+    // ------------------------------------------------------------------------
+    // 2. ----------------------- Navigation (lazy views) ---------------------
+    // ------------------------------------------------------------------------
+
+    char kind(int token) {
+        return src.charAt(offsets[token]);
+    }
+
+    /** Index of the matching close token of an open bracket. */
+    int closeOf(int token) {
+        return links[token];
+    }
+
+    /** Index of the token following the value that starts at {@code token}. */
+    int skip(int token) {
+        char kind = kind(token);
+        return kind == '{' || kind == '[' ? links[token] + 1 : token + 1;
+    }
+
+    /**
+     * Compares the string token {@code token} with {@code key} without
+     * materializing it, unless it contains escapes.
+     */
+    boolean keyEquals(int token, String key) {
+        int close = links[token];
+        if (close < 0) {
+            return key.equals(value(token));
+        }
+        int start = offsets[token] + 1;
+        return close - start == key.length() && src.regionMatches(start, key, 0, key.length());
+    }
+
+    /**
+     * Materializes the value starting at {@code token}.
+     */
+    Object value(int token) {
+        char kind = kind(token);
+        if (kind == '{') {
+            return new LazyObject(this, token);
+        }
+        if (kind == '[') {
+            return new LazyArray(this, token);
+        }
+        int start = offsets[token];
+        if (kind == '"' || kind == '\'') {
+            int close = links[token];
+            if (close >= 0) {
+                return src.substring(start + 1, close);
+            }
+            return new JSONParser(src, start, ~close + 1, options).readString();
+        }
+        return new JSONParser(src, start, links[token], options).parseDocument();
+    }
+
+    private static boolean isDelimiter(char ch) {
+        return ch == ',' || ch == '}' || ch == ']' || ch == ':'
+            || ch == ' ' || ch == '\n' || ch == '\r' || ch == '\t';
+    }
+
+    private static JSONParseException error(String message, int offset) {
+        return new JSONParseException(message + " at offset " + offset);
+    }
+}
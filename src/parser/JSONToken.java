@@ -0,0 +1,17 @@
+package src.parser;
+
+/**
+ * Kinds of tokens produced by {@link JSONReader}.
+ */
+public enum JSONToken {
+    BEGIN_OBJECT,
+    END_OBJECT,
+    BEGIN_ARRAY,
+    END_ARRAY,
+    NAME,
+    STRING,
+    NUMBER,
+    BOOLEAN,
+    NULL,
+    END_DOCUMENT
+}
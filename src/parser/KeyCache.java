@@ -0,0 +1,162 @@
+package src.parser;
+
+import java.nio.charset.StandardCharsets;
+
+import src.utility.ByteSource;
+
+/**
+ * =============================================================================
+ * KeyCache.java
+ * =============================================================================
+ *
+ * Bounded canonicalization table for object keys.
+ *
+ * Record-style documents repeat the same handful of keys thousands of
+ * times. With {@link ParseOptions#withInternKeys(boolean)} enabled, the
+ * parsers look every unescaped key up here by hashing its raw characters or
+ * UTF-8 bytes in place. On a hit the cached String instance is returned
+ * without allocating or decoding anything; on a miss the key is decoded
+ * once and replaces whatever occupied its slot.
+ *
+ * The table is direct-mapped with a fixed number of slots and only holds
+ * keys of up to {@link #MAX_KEY_LENGTH} characters, so it never grows. A
+ * fixed set of tables is shared by all threads, each thread using the one
+ * its identity hash picks. Threads that live for a single document, such
+ * as the virtual threads of {@code NSON.loadAll}, therefore still find the
+ * keys cached by earlier ones instead of starting from an empty table.
+ * Slots hold immutable entries, so concurrent use can lose updates but
+ * never returns a wrong key.
+ *
+ * =============================================================================
+ */
+public final class KeyCache {
+
+    public static final int MAX_KEY_LENGTH = 64;
+
+    private static final int SLOTS = 1024;
+    private static final int MASK = SLOTS - 1;
+
+    /** Tables shared by all threads; a power of two. */
+    private static final int STRIPES = 8;
+    private static final KeyCache[] CACHES = new KeyCache[STRIPES];
+
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            CACHES[i] = new KeyCache();
+        }
+    }
+
+    private static final class Entry {
+        final int hash;
+        final String key;
+        final byte[] utf8;
+
+        Entry(int hash, String key, byte[] utf8) {
+            this.hash = hash;
+            this.key = key;
+            this.utf8 = utf8;
+        }
+    }
+
+    private final Entry[] table = new Entry[SLOTS];
+
+    /**
+     * Returns the shared table the calling thread uses; the same one on
+     * every call from that thread.
+     */
+    public static KeyCache forCurrentThread() {
+        return CACHES[slot(System.identityHashCode(Thread.currentThread())) & (STRIPES - 1)];
+    }
+
+    /**
+     * Returns the canonical String for {@code src[start, end)}.
+     */
+    public String get(String src, int start, int end) {
+        int length = end - start;
+        if (length > MAX_KEY_LENGTH) {
+            return src.substring(start, end);
+        }
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + src.charAt(i);
+        }
+        int slot = slot(hash);
+        Entry entry = table[slot];
+        if (entry != null && entry.hash == hash && entry.key.length() == length
+                && src.regionMatches(start, entry.key, 0, length)) {
+            return entry.key;
+        }
+        String key = src.substring(start, end);
+        table[slot] = new Entry(hash, key, null);
+        return key;
+    }
+
+    /**
+     * Returns the canonical String for {@code length} chars of {@code buf}.
+     */
+    public String get(char[] buf, int start, int length) {
+        if (length > MAX_KEY_LENGTH) {
+            return new String(buf, start, length);
+        }
+        int hash = 0;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + buf[i];
+        }
+        int slot = slot(hash);
+        Entry entry = table[slot];
+        if (entry != null && entry.hash == hash && entry.key.length() == length) {
+            String key = entry.key;
+            int i = 0;
+            while (i < length && key.charAt(i) == buf[start + i]) {
+                i++;
+            }
+            if (i == length) {
+                return key;
+            }
+        }
+        String key = new String(buf, start, length);
+        table[slot] = new Entry(hash, key, null);
+        return key;
+    }
+
+    /**
+     * Returns the canonical String for {@code length} UTF-8 bytes of
+     * {@code in}, comparing the raw bytes so that hits are never decoded.
+     */
+    public String get(ByteSource in, long start, int length, boolean nonAscii) {
+        if (length > MAX_KEY_LENGTH) {
+            return decode(in, start, length, nonAscii);
+        }
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + (in.get(start + i) & 0xFF);
+        }
+        int slot = slot(hash);
+        Entry entry = table[slot];
+        if (entry != null && entry.hash == hash && entry.utf8 != null && entry.utf8.length == length) {
+            byte[] bytes = entry.utf8;
+            int i = 0;
+            while (i < length && bytes[i] == in.get(start + i)) {
+                i++;
+            }
+            if (i == length) {
+                return entry.key;
+            }
+        }
+        byte[] bytes = new byte[length];
+        in.get(start, bytes, 0, length);
+        String key = new String(bytes, nonAscii ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1);
+        table[slot] = new Entry(hash, key, bytes);
+        return key;
+    }
+
+    private static String decode(ByteSource in, long start, int length, boolean nonAscii) {
+        byte[] bytes = new byte[length];
+        in.get(start, bytes, 0, length);
+        return new String(bytes, nonAscii ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1);
+    }
+
+    private static int slot(int hash) {
+        return (hash ^ (hash >>> 16)) & MASK;
+    }
+}
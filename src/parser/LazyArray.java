@@ -0,0 +1,67 @@
+package src.parser;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Read-only {@code List} view of a JSON array inside a {@link JSONTape}.
+ * <p>
+ * The first access records where each element starts on the tape, which
+ * skips nested values in O(1); after that {@link #get(int)} is constant
+ * time and only materializes the element asked for.
+ */
+public final class LazyArray extends AbstractList<Object> implements RandomAccess {
+
+    private static final Object UNREAD = new Object();
+
+    private final JSONTape tape;
+    private final int open;
+    private int[] elements;
+    private Object[] values;
+
+    LazyArray(JSONTape tape, int open) {
+        this.tape = tape;
+        this.open = open;
+    }
+
+    @Override
+    public Object get(int index) {
+        int[] tokens = elements();
+        if (index < 0 || index >= tokens.length) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + tokens.length);
+        }
+        if (values == null) {
+            values = new Object[tokens.length];
+            Arrays.fill(values, UNREAD);
+        }
+        Object value = values[index];
+        if (value == UNREAD) {
+            value = tape.value(tokens[index]);
+            values[index] = value;
+        }
+        return value;
+    }
+
+    @Override
+    public int size() {
+        return elements().length;
+    }
+
+    private int[] elements() {
+        if (elements == null) {
+            int end = tape.closeOf(open);
+            int n = 0;
+            for (int token = open + 1; token < end; token = tape.skip(token)) {
+                n++;
+            }
+            int[] tokens = new int[n];
+            int i = 0;
+            for (int token = open + 1; token < end; token = tape.skip(token)) {
+                tokens[i++] = token;
+            }
+            elements = tokens;
+        }
+        return elements;
+    }
+}
@@ -0,0 +1,71 @@
+package src.parser;
+
+/**
+ * A JSON number kept as its raw source text and converted only when one of
+ * the {@link Number} accessors is called.
+ * <p>
+ * Produced when {@link ParseOptions#withLazyNumbers(boolean)} is enabled, so
+ * documents whose numbers are only passed through never pay for conversion.
+ * Serializers write the original text back unchanged.
+ */
+public final class LazyNumber extends Number {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String text;
+    private transient Number value;
+
+    public LazyNumber(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Returns the decoded value, converting the text on first use.
+     */
+    public Number value() {
+        Number result = value;
+        if (result == null) {
+            result = JSONNumbers.parse(text, 0, text.length());
+            if (result == null) {
+                throw new NumberFormatException("Not a JSON number: " + text);
+            }
+            value = result;
+        }
+        return result;
+    }
+
+    @Override
+    public int intValue() {
+        return value().intValue();
+    }
+
+    @Override
+    public long longValue() {
+        return value().longValue();
+    }
+
+    @Override
+    public float floatValue() {
+        return value().floatValue();
+    }
+
+    @Override
+    public double doubleValue() {
+        return value().doubleValue();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof LazyNumber lazy && lazy.text.equals(text);
+    }
+
+    @Override
+    public int hashCode() {
+        return text.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -0,0 +1,170 @@
+package src.parser;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Read-only {@code Map} view of a JSON object inside a {@link JSONTape}.
+ * <p>
+ * Nothing is decoded up front. {@link #get(Object)} walks the object's keys
+ * on the tape, comparing them in place with the requested key and skipping
+ * nested values in O(1), and materializes only the value it returns. Values
+ * are cached once read, so touching a field twice does not decode it twice.
+ * Iteration preserves document order; {@code size()} and iteration decode
+ * all keys once to resolve duplicates.
+ */
+public final class LazyObject extends AbstractMap<String, Object> {
+
+    private static final Object UNREAD = new Object();
+
+    private final JSONTape tape;
+    private final int open;
+    private int entryCount = -1;
+    private int[] keyTokens;
+    private int[] ordinals;
+    private Object[] values;
+
+    LazyObject(JSONTape tape, int open) {
+        this.tape = tape;
+        this.open = open;
+    }
+
+    @Override
+    public Object get(Object key) {
+        long found = find(key);
+        return found < 0 ? null : valueAt((int) (found >>> 32), (int) found);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return find(key) >= 0;
+    }
+
+    @Override
+    public int size() {
+        return keyTokens().length;
+    }
+
+    @Override
+    public Set<Entry<String, Object>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, Object>> iterator() {
+                return new Iterator<>() {
+                    private final int[] tokens = keyTokens();
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < tokens.length;
+                    }
+
+                    @Override
+                    public Entry<String, Object> next() {
+                        if (!hasNext()) {
+                            throw new NoSuchElementException();
+                        }
+                        int token = tokens[next];
+                        String key = (String) tape.value(token);
+                        Object value = valueAt(ordinals[next++], token + 1);
+                        return new SimpleImmutableEntry<>(key, value);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return LazyObject.this.size();
+            }
+        };
+    }
+
+    /**
+     * Key tokens of the entries visible through the Map interface, in
+     * document order. When a key repeats, only its last occurrence counts,
+     * as it would after filling a HashMap in order.
+     */
+    private int[] keyTokens() {
+        if (keyTokens == null) {
+            int end = tape.closeOf(open);
+            int n = 0;
+            for (int token = open + 1; token < end; token = tape.skip(token + 1)) {
+                n++;
+            }
+            int[] all = new int[n];
+            int i = 0;
+            for (int token = open + 1; token < end; token = tape.skip(token + 1)) {
+                all[i++] = token;
+            }
+            entryCount = n;
+
+            Set<Object> seen = new HashSet<>();
+            boolean[] shadowed = new boolean[n];
+            int visible = 0;
+            for (i = n - 1; i >= 0; i--) {
+                if (seen.add(tape.value(all[i]))) {
+                    visible++;
+                } else {
+                    shadowed[i] = true;
+                }
+            }
+            int[] tokens = new int[visible];
+            int[] entries = new int[visible];
+            int k = 0;
+            for (i = 0; i < n; i++) {
+                if (!shadowed[i]) {
+                    tokens[k] = all[i];
+                    entries[k++] = i;
+                }
+            }
+            ordinals = entries;
+            keyTokens = tokens;
+        }
+        return keyTokens;
+    }
+
+    /**
+     * Returns {@code entry << 32 | valueToken} for {@code key}, or -1. Later
+     * duplicates win, as they do when a HashMap is filled in order.
+     */
+    private long find(Object key) {
+        if (!(key instanceof String name)) {
+            return -1;
+        }
+        long found = -1;
+        int end = tape.closeOf(open);
+        long entry = 0;
+        for (int token = open + 1; token < end; token = tape.skip(token + 1), entry++) {
+            if (tape.keyEquals(token, name)) {
+                found = entry << 32 | (token + 1);
+            }
+        }
+        return found;
+    }
+
+    private Object valueAt(int entry, int token) {
+        if (values == null) {
+            if (entryCount < 0) {
+                int n = 0;
+                int end = tape.closeOf(open);
+                for (int key = open + 1; key < end; key = tape.skip(key + 1)) {
+                    n++;
+                }
+                entryCount = n;
+            }
+            values = new Object[entryCount];
+            Arrays.fill(values, UNREAD);
+        }
+        Object value = values[entry];
+        if (value == UNREAD) {
+            value = tape.value(token);
+            values[entry] = value;
+        }
+        return value;
+    }
+}
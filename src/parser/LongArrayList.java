@@ -0,0 +1,55 @@
+package src.parser;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Read-only {@code List} of JSON integers backed by a {@code long[]}.
+ * <p>
+ * Produced for arrays of integers when
+ * {@link ParseOptions#primitiveArrays()} is set, at 8 bytes per element
+ * instead of a reference plus a boxed {@code Long}. {@link #get(int)}
+ * boxes on access; {@link #getLong(int)} does not. {@code JSONWriter}
+ * writes it without boxing.
+ */
+public final class LongArrayList extends AbstractList<Object> implements RandomAccess {
+
+    private final long[] values;
+    private final int size;
+
+    LongArrayList(long[] values, int size) {
+        this.values = values;
+        this.size = size;
+    }
+
+    /**
+     * Wraps {@code values} without copying, e.g. to serialize a vector
+     * without boxing. The array must not be modified afterwards.
+     */
+    public static LongArrayList wrap(long[] values) {
+        return new LongArrayList(values, values.length);
+    }
+
+    @Override
+    public Object get(int index) {
+        return getLong(index);
+    }
+
+    public long getLong(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size);
+        }
+        return values[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /** Returns a copy of the elements. */
+    public long[] toLongArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
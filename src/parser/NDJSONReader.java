@@ -0,0 +1,347 @@
+package src.parser;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import src.exception.JSONFileException;
+import src.exception.JSONParseException;
+import src.utility.ByteSource;
+import src.utility.StructuralScanner;
+import src.utility.Threads;
+
+/**
+ * =============================================================================
+ * NDJSONReader.java
+ * =============================================================================
+ *
+ * Parallel reader for newline-delimited JSON (NDJSON / JSON Lines) and
+ * concatenated JSON, where the input is a sequence of top-level objects.
+ *
+ * The input is cut into chunks of about {@link #DEFAULT_CHUNK_SIZE} bytes
+ * whose boundaries fall between records:
+ * - {@link Framing#LINES}: a boundary is moved to just after the next
+ *   newline, found with {@link StructuralScanner}
+ * - {@link Framing#CONCATENATED}: records may span lines, so boundaries are
+ *   found by a structural pre-scan that tracks strings and nesting depth
+ *
+ * Each chunk is parsed by its own {@link Utf8Parser} on the configured
+ * executor. At most a few chunks per worker are in flight at a time, so
+ * inputs far larger than the heap can be streamed. Results are delivered
+ * in input order, or as chunks complete when ordering is turned off.
+ *
+ * Instances are immutable; each {@code with...} method returns a copy.
+ *
+ * EXAMPLE USAGE:
+ * --------------
+ * try (Stream<Map<String, Object>> events = NDJSONReader.open(path).withOrdered(false).stream()) {
+ *     long errors = events.filter(e -> "error".equals(e.get("level"))).count();
+ * }
+ *
+ * =============================================================================
+ */
+public final class NDJSONReader {
+
+    /** Record framing of the input. */
+    public enum Framing {
+        /** One record per line; newlines inside records are not allowed. */
+        LINES,
+        /** Records follow each other, separated by optional whitespace. */
+        CONCATENATED
+    }
+
+    /** Target chunk size; actual chunks end at the next record boundary. */
+    public static final long DEFAULT_CHUNK_SIZE = 8 << 20;
+
+    private static final StructuralScanner SCANNER = StructuralScanner.INSTANCE;
+
+    private final ByteSource in;
+    private final ParseOptions options;
+    private final Framing framing;
+    private final Executor executor;
+    private final boolean virtualThreads;
+    private final boolean ordered;
+    private final long chunkSize;
+
+    private NDJSONReader(ByteSource in, ParseOptions options, Framing framing, Executor executor,
+            boolean virtualThreads, boolean ordered, long chunkSize) {
+        this.in = in;
+        this.options = options;
+        this.framing = framing;
+        this.executor = executor;
+        this.virtualThreads = virtualThreads;
+        this.ordered = ordered;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Creates an ordered NDJSON reader over {@code in} that parses on the
+     * common ForkJoinPool.
+     */
+    public static NDJSONReader of(ByteSource in) {
+        return new NDJSONReader(in, ParseOptions.DEFAULT, Framing.LINES, ForkJoinPool.commonPool(),
+            false, true, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Memory-maps {@code path} and creates a reader over it.
+     */
+    public static NDJSONReader open(Path path) throws IOException {
+        return of(ByteSource.map(path));
+    }
+
+    public NDJSONReader withOptions(ParseOptions options) {
+        return new NDJSONReader(in, options, framing, executor, virtualThreads, ordered, chunkSize);
+    }
+
+    public NDJSONReader withFraming(Framing framing) {
+        return new NDJSONReader(in, options, framing, executor, virtualThreads, ordered, chunkSize);
+    }
+
+    /**
+     * Parses chunks on {@code executor}. The reader never shuts it down.
+     */
+    public NDJSONReader withExecutor(Executor executor) {
+        return new NDJSONReader(in, options, framing, executor, false, ordered, chunkSize);
+    }
+
+    /**
+     * Parses each chunk on its own virtual thread, see
+     * {@link Threads#newVirtualThreadPerTaskExecutor()}. The executor is
+     * created per stream and shut down when the stream is closed.
+     */
+    public NDJSONReader withVirtualThreads() {
+        return new NDJSONReader(in, options, framing, null, true, ordered, chunkSize);
+    }
+
+    /**
+     * When disabled, records of a chunk are delivered as soon as the chunk
+     * is parsed, regardless of its position in the input.
+     */
+    public NDJSONReader withOrdered(boolean ordered) {
+        return new NDJSONReader(in, options, framing, executor, virtualThreads, ordered, chunkSize);
+    }
+
+    public NDJSONReader withChunkSize(long chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        return new NDJSONReader(in, options, framing, executor, virtualThreads, ordered, chunkSize);
+    }
+
+    /**
+     * Returns the records of the input as a lazily evaluated stream. Parsing
+     * starts on the first terminal operation; closing the stream cancels any
+     * chunks still in flight.
+     *
+     * @throws JSONParseException From the terminal operation, if a record
+     *                            is malformed or is not an object.
+     */
+    public Stream<Map<String, Object>> stream() {
+        ChunkIterator chunks = new ChunkIterator();
+        int characteristics = Spliterator.NONNULL | (ordered ? Spliterator.ORDERED : 0);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(chunks, characteristics), false)
+            .flatMap(List::stream)
+            .onClose(chunks::cancel);
+    }
+
+    // ------------------------------------------------------------------------
+    // 1. --------------------------- Chunking --------------------------------
+    // ------------------------------------------------------------------------
+
+    /**
+     * Returns the end of the chunk starting at {@code start}: the first
+     * record boundary at or after {@code start + chunkSize}.
+     */
+    long chunkEnd(long start) {
+        long size = in.size();
+        long target = start + chunkSize;
+        if (target >= size) {
+            return size;
+        }
+        if (framing == Framing.LINES) {
+            long newline = SCANNER.indexOf(in, target, size, (byte) '\n');
+            return newline == size ? size : newline + 1;
+        }
+        return recordBoundary(start, target);
+    }
+
+    /**
+     * Walks structural bytes from {@code start}, which is a record boundary,
+     * and returns the first point at or after {@code target} where a
+     * top-level record has just closed.
+     */
+    private long recordBoundary(long start, long target) {
+        long size = in.size();
+        long p = start;
+        int depth = 0;
+        while (true) {
+            p = SCANNER.nextStructural(in, p, size);
+            if (p == size) {
+                return size;
+            }
+            byte b = in.get(p);
+            if (b == '"' || b == '\'') {
+                p = skipString(p + 1, size, b);
+                continue;
+            }
+            p++;
+            if (b == '{' || b == '[') {
+                depth++;
+            } else if ((b == '}' || b == ']') && --depth <= 0) {
+                depth = 0;
+                if (p >= target) {
+                    return p;
+                }
+            }
+        }
+    }
+
+    private long skipString(long p, long size, byte quote) {
+        while (true) {
+            p = SCANNER.nextQuoteOrEscape(in, p, size, quote);
+            if (p >= size) {
+                return size;
+            }
+            if (in.get(p) == quote) {
+                return p + 1;
+            }
+            p += 2; // backslash and the escaped byte
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // 2. --------------------------- Parsing ---------------------------------
+    // ------------------------------------------------------------------------
+
+    @SuppressWarnings("unchecked")
+    List<Map<String, Object>> parseChunk(long start, long end) {
+        List<Map<String, Object>> records = new ArrayList<>();
+        Utf8Parser parser = new Utf8Parser(in, start, end, options);
+        while (true) {
+            parser.skipWhitespace();
+            if (parser.position() >= end) {
+                return records;
+            }
+            if (in.get(parser.position()) != '{') {
+                throw parser.error("Expected '{' at start of record");
+            }
+            records.add((Map<String, Object>) parser.readValue());
+        }
+    }
+
+    /**
+     * Submits chunks ahead of the consumer, keeping at most {@code window}
+     * of them in flight, and hands back their results.
+     */
+    private final class ChunkIterator implements Iterator<List<Map<String, Object>>> {
+
+        private final Executor pool;
+        private final ExecutorService owned;
+        private final int window;
+        /** Futures in flight, in submission order. */
+        private final ArrayDeque<CompletableFuture<List<Map<String, Object>>>> pending = new ArrayDeque<>();
+        /** Futures in completion order, used when unordered. */
+        private final BlockingQueue<CompletableFuture<List<Map<String, Object>>>> completed = new LinkedBlockingQueue<>();
+        private long next;
+        private int inFlight;
+        private boolean cancelled;
+
+        ChunkIterator() {
+            this.owned = virtualThreads ? Threads.newVirtualThreadPerTaskExecutor() : null;
+            this.pool = owned != null ? owned : executor;
+            int workers = pool instanceof ForkJoinPool fj ? fj.getParallelism() : Runtime.getRuntime().availableProcessors();
+            this.window = Math.max(2, workers * 2);
+        }
+
+        @Override
+        public boolean hasNext() {
+            submit();
+            if (inFlight == 0) {
+                shutdown();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public List<Map<String, Object>> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            CompletableFuture<List<Map<String, Object>>> future;
+            if (ordered) {
+                future = pending.poll();
+            } else {
+                try {
+                    future = completed.take();
+                    pending.remove(future);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    cancel();
+                    throw new JSONFileException("Interrupted while reading records");
+                }
+            }
+            inFlight--;
+            try {
+                return future.join();
+            } catch (CompletionException | CancellationException e) {
+                cancel();
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof RuntimeException runtime) {
+                    throw runtime;
+                }
+                throw new JSONParseException("Failed to parse records: " + cause);
+            }
+        }
+
+        private void submit() {
+            long size = in.size();
+            while (!cancelled && inFlight < window && next < size) {
+                long start = next;
+                long end = chunkEnd(start);
+                next = end;
+                CompletableFuture<List<Map<String, Object>>> future =
+                    CompletableFuture.supplyAsync(() -> parseChunk(start, end), pool);
+                pending.add(future);
+                if (!ordered) {
+                    future.whenComplete((records, error) -> completed.add(future));
+                }
+                inFlight++;
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+            for (CompletableFuture<?> future : pending) {
+                future.cancel(false);
+            }
+            pending.clear();
+            inFlight = 0;
+            shutdown();
+        }
+
+        private void shutdown() {
+            if (owned != null) {
+                owned.shutdown();
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package src.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Collects the elements of one JSON array while they are all numbers, for
+ * {@link ParseOptions#primitiveArrays()}.
+ * <p>
+ * Integers are kept in a {@code long[]} until the first decimal arrives;
+ * from then on everything is kept in a {@code double[]}. A value that
+ * cannot be stored exactly (a string, a BigInteger, or an integer beyond
+ * 2^53 next to decimals) makes {@link #add} return false, and the parser
+ * continues with {@link #toList()}.
+ */
+final class NumericArrayBuilder {
+
+    private static final int INITIAL_CAPACITY = 16;
+    /** Largest magnitude up to which every long is exactly a double. */
+    private static final long MAX_EXACT_DOUBLE = 1L << 53;
+
+    private long[] longs = new long[INITIAL_CAPACITY];
+    private double[] doubles;
+    /** Which entries of {@code doubles} were integers, to restore them as Longs. */
+    private BitSet integers;
+    private int size;
+
+    /**
+     * Appends {@code value} if it can be stored without loss.
+     */
+    boolean add(Object value) {
+        if (value instanceof Long l) {
+            long v = l;
+            if (doubles == null) {
+                if (size == longs.length) {
+                    longs = Arrays.copyOf(longs, grow(size));
+                }
+                longs[size++] = v;
+                return true;
+            }
+            if (!isExactDouble(v)) {
+                return false;
+            }
+            integers.set(size);
+            return addDouble(v);
+        }
+        if (value instanceof Double d) {
+            if (doubles == null && !switchToDoubles()) {
+                return false;
+            }
+            return addDouble(d);
+        }
+        return false;
+    }
+
+    /**
+     * Returns the elements as a {@link LongArrayList} or {@link DoubleArrayList},
+     * trimmed when much of the buffer is unused.
+     */
+    List<Object> build() {
+        if (doubles != null) {
+            return new DoubleArrayList(size < doubles.length / 2 ? Arrays.copyOf(doubles, size) : doubles, size, integers);
+        }
+        return new LongArrayList(size < longs.length / 2 ? Arrays.copyOf(longs, size) : longs, size);
+    }
+
+    /**
+     * Returns the elements collected so far as a mutable boxed list.
+     */
+    List<Object> toList() {
+        List<Object> list = new ArrayList<>(Math.max(INITIAL_CAPACITY, size * 2));
+        for (int i = 0; i < size; i++) {
+            if (doubles == null) {
+                list.add(longs[i]);
+            } else if (integers.get(i)) {
+                list.add((long) doubles[i]);
+            } else {
+                list.add(doubles[i]);
+            }
+        }
+        return list;
+    }
+
+    private boolean addDouble(double v) {
+        if (size == doubles.length) {
+            doubles = Arrays.copyOf(doubles, grow(size));
+        }
+        doubles[size++] = v;
+        return true;
+    }
+
+    private boolean switchToDoubles() {
+        for (int i = 0; i < size; i++) {
+            if (!isExactDouble(longs[i])) {
+                return false;
+            }
+        }
+        doubles = new double[Math.max(INITIAL_CAPACITY, longs.length)];
+        for (int i = 0; i < size; i++) {
+            doubles[i] = longs[i];
+        }
+        integers = new BitSet();
+        integers.set(0, size);
+        longs = null;
+        return true;
+    }
+
+    private static boolean isExactDouble(long v) {
+        return v >= -MAX_EXACT_DOUBLE && v <= MAX_EXACT_DOUBLE;
+    }
+
+    private static int grow(int size) {
+        return size + (size >> 1) + 1;
+    }
+}
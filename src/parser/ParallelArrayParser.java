@@ -0,0 +1,313 @@
+package src.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import src.exception.JSONParseException;
+import src.utility.ByteSource;
+import src.utility.StructuralScanner;
+
+/**
+ * =============================================================================
+ * ParallelArrayParser.java
+ * =============================================================================
+ *
+ * Parses a document whose root is one large array using all cores.
+ *
+ * A structural pre-scan walks the input once, skipping string contents,
+ * and records the offsets of the opening bracket, every top-level comma
+ * and the closing bracket. Those offsets delimit the elements, which are
+ * then parsed independently by fork-join tasks over {@link JSONParser} or
+ * {@link Utf8Parser} regions. Adjacent small elements are grouped so that
+ * each task handles about {@link #GRAIN} bytes or characters.
+ *
+ * The result is an ordinary mutable List in document order, equal to what
+ * the sequential parsers produce. The pre-scan only tracks nesting; full
+ * syntax checking happens while the elements are parsed.
+ *
+ * EXAMPLE USAGE:
+ * --------------
+ * List<Object> rows = ParallelArrayParser.parse(ByteSource.map(path), options);
+ *
+ * =============================================================================
+ */
+public final class ParallelArrayParser {
+
+    /** Approximate input size handled by one task. */
+    public static final int GRAIN = 256 << 10;
+
+    private static final StructuralScanner SCANNER = StructuralScanner.INSTANCE;
+
+    /** Parses the element in {@code [start, end)}. */
+    private interface ElementParser {
+        Object parse(long start, long end);
+    }
+
+    /** Tells whether {@code [start, end)} holds only whitespace. */
+    private interface BlankCheck {
+        boolean isBlank(long start, long end);
+    }
+
+    private ParallelArrayParser() {
+    }
+
+    public static List<Object> parse(String src, ParseOptions options) {
+        long[] separators = scan(src);
+        return parseElements(separators, (start, end) -> new JSONParser(src, (int) start, (int) end, options).parseDocument(),
+            (start, end) -> isBlank(src, (int) start, (int) end), options);
+    }
+
+    public static List<Object> parse(ByteSource in, ParseOptions options) {
+        long[] separators = scan(in);
+        return parseElements(separators, (start, end) -> new Utf8Parser(in, start, end, options).parseDocument(),
+            (start, end) -> isBlank(in, start, end), options);
+    }
+
+    // ------------------------------------------------------------------------
+    // 1. -------------------------- Pre-scan ---------------------------------
+    // ------------------------------------------------------------------------
+
+    /**
+     * Returns the offsets of the root's opening bracket, its top-level
+     * commas and its closing bracket.
+     */
+    private static long[] scan(String src) {
+        int n = src.length();
+        int p = skipWhitespace(src, 0, n);
+        if (p >= n || src.charAt(p) != '[') {
+            throw error("Expected '[' at document root", p);
+        }
+        Separators separators = new Separators();
+        separators.add(p);
+        int depth = 0;
+        for (; p < n; p++) {
+            char ch = src.charAt(p);
+            switch (ch) {
+                case '"':
+                case '\'':
+                    p = closingQuote(src, p);
+                    break;
+                case '{':
+                case '[':
+                    depth++;
+                    break;
+                case '}':
+                case ']':
+                    if (--depth == 0) {
+                        if (ch != ']') {
+                            throw error("Expected ',' or ']' in array", p);
+                        }
+                        separators.add(p);
+                        if (skipWhitespace(src, p + 1, n) != n) {
+                            throw error("Unexpected trailing content", skipWhitespace(src, p + 1, n));
+                        }
+                        return separators.toArray();
+                    }
+                    break;
+                case ',':
+                    if (depth == 1) {
+                        separators.add(p);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        throw error("Unterminated array", n);
+    }
+
+    private static long[] scan(ByteSource in) {
+        long n = in.size();
+        long p = skipWhitespace(in, 0, n);
+        if (n - p >= 3 && in.get(p) == (byte) 0xEF && in.get(p + 1) == (byte) 0xBB && in.get(p + 2) == (byte) 0xBF) {
+            p = skipWhitespace(in, p + 3, n);
+        }
+        if (p >= n || in.get(p) != '[') {
+            throw error("Expected '[' at document root", p);
+        }
+        Separators separators = new Separators();
+        separators.add(p);
+        int depth = 0;
+        while ((p = SCANNER.nextStructural(in, p, n)) < n) {
+            byte b = in.get(p);
+            if (b == '"' || b == '\'') {
+                p = closingQuote(in, p, n) + 1;
+                continue;
+            }
+            if (b == '{' || b == '[') {
+                depth++;
+            } else if (b == '}' || b == ']') {
+                if (--depth == 0) {
+                    if (b != ']') {
+                        throw error("Expected ',' or ']' in array", p);
+                    }
+                    separators.add(p);
+                    long rest = skipWhitespace(in, p + 1, n);
+                    if (rest != n) {
+                        throw error("Unexpected trailing content", rest);
+                    }
+                    return separators.toArray();
+                }
+            } else if (b == ',' && depth == 1) {
+                separators.add(p);
+            }
+            p++;
+        }
+        throw error("Unterminated array", n);
+    }
+
+    /** Offset of the quote closing the string that opens at {@code start}. */
+    private static int closingQuote(String src, int start) {
+        char quote = src.charAt(start);
+        int p = start + 1;
+        while (true) {
+            int close = src.indexOf(quote, p);
+            if (close < 0) {
+                throw error("Unterminated string", start);
+            }
+            int backslashes = 0;
+            while (src.charAt(close - 1 - backslashes) == '\\') {
+                backslashes++;
+            }
+            if ((backslashes & 1) == 0) {
+                return close;
+            }
+            p = close + 1;
+        }
+    }
+
+    private static long closingQuote(ByteSource in, long start, long n) {
+        byte quote = in.get(start);
+        long p = start + 1;
+        while (true) {
+            p = SCANNER.nextQuoteOrEscape(in, p, n, quote);
+            if (p >= n) {
+                throw error("Unterminated string", start);
+            }
+            if (in.get(p) == quote) {
+                return p;
+            }
+            p += 2; // backslash and the escaped byte
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // 2. ------------------------ Element Parsing ----------------------------
+    // ------------------------------------------------------------------------
+
+    private static List<Object> parseElements(long[] separators, ElementParser parser, BlankCheck blank,
+            ParseOptions options) {
+        int count = separators.length - 1;
+        if (count == 1 && blank.isBlank(separators[0] + 1, separators[1])) {
+            return new ArrayList<>();
+        }
+        Object[] elements = new Object[count];
+        ForkJoinPool.commonPool().invoke(new ElementTask(parser, separators, elements, 0, count));
+        if (options.primitiveArrays()) {
+            return toPrimitive(elements);
+        }
+        return new ArrayList<>(Arrays.asList(elements));
+    }
+
+    /** Same result as the sequential parsers give for an all-numeric array. */
+    private static List<Object> toPrimitive(Object[] elements) {
+        NumericArrayBuilder numbers = new NumericArrayBuilder();
+        for (Object element : elements) {
+            if (!numbers.add(element)) {
+                return new ArrayList<>(Arrays.asList(elements));
+            }
+        }
+        return numbers.build();
+    }
+
+    /**
+     * Parses elements {@code [lo, hi)}, splitting in halves until a range is
+     * a single element or spans at most {@link #GRAIN}.
+     */
+    private static final class ElementTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final ElementParser parser;
+        private final long[] separators;
+        private final Object[] elements;
+        private final int lo;
+        private final int hi;
+
+        ElementTask(ElementParser parser, long[] separators, Object[] elements, int lo, int hi) {
+            this.parser = parser;
+            this.separators = separators;
+            this.elements = elements;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo == 1 || separators[hi] - separators[lo] <= GRAIN) {
+                for (int i = lo; i < hi; i++) {
+                    elements[i] = parser.parse(separators[i] + 1, separators[i + 1]);
+                }
+                return;
+            }
+            int mid = (lo + hi) >>> 1;
+            invokeAll(new ElementTask(parser, separators, elements, lo, mid),
+                new ElementTask(parser, separators, elements, mid, hi));
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // 3. --------------------------- Helpers ---------------------------------
+    // ------------------------------------------------------------------------
+
+    /** Growable list of offsets. */
+    private static final class Separators {
+
+        private long[] offsets = new long[1024];
+        private int count;
+
+        void add(long offset) {
+            if (count == offsets.length) {
+                offsets = Arrays.copyOf(offsets, count * 2);
+            }
+            offsets[count++] = offset;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(offsets, count);
+        }
+    }
+
+    private static int skipWhitespace(String src, int p, int n) {
+        while (p < n && isWhitespace(src.charAt(p))) {
+            p++;
+        }
+        return p;
+    }
+
+    private static long skipWhitespace(ByteSource in, long p, long n) {
+        while (p < n && isWhitespace((char) in.get(p))) {
+            p++;
+        }
+        return p;
+    }
+
+    private static boolean isBlank(String src, int start, int end) {
+        return skipWhitespace(src, start, end) == end;
+    }
+
+    private static boolean isBlank(ByteSource in, long start, long end) {
+        return skipWhitespace(in, start, end) == end;
+    }
+
+    private static boolean isWhitespace(char ch) {
+        return ch == ' ' || ch == '\n' || ch == '\r' || ch == '\t';
+    }
+
+    private static JSONParseException error(String message, long offset) {
+        return new JSONParseException(message + " at offset " + offset);
+    }
+}
@@ -0,0 +1,116 @@
+package src.parser;
+
+/**
+ * =============================================================================
+ * ParseOptions.java
+ * =============================================================================
+ *
+ * Immutable set of switches shared by the parsers. Each {@code with...}
+ * method returns a modified copy, so instances can be shared freely between
+ * threads and {@link #DEFAULT} can never be changed by accident.
+ *
+ * EXAMPLE USAGE:
+ * --------------
+ * ParseOptions options = ParseOptions.DEFAULT.withLazyNumbers(true);
+ * NSON nson = new NSON(options);
+ *
+ * =============================================================================
+ */
+public final class ParseOptions {
+
+    public static final ParseOptions DEFAULT = new ParseOptions(false, false, Long.MAX_VALUE, false, false);
+
+    private final boolean lazyNumbers;
+    private final boolean internKeys;
+    private final long parallelThreshold;
+    private final boolean primitiveArrays;
+    private final boolean compactObjects;
+
+    private ParseOptions(boolean lazyNumbers, boolean internKeys, long parallelThreshold, boolean primitiveArrays,
+            boolean compactObjects) {
+        this.lazyNumbers = lazyNumbers;
+        this.internKeys = internKeys;
+        this.parallelThreshold = parallelThreshold;
+        this.primitiveArrays = primitiveArrays;
+        this.compactObjects = compactObjects;
+    }
+
+    /**
+     * When enabled, numbers are returned as {@link LazyNumber} instances that
+     * keep their source text and are only converted on first access.
+     */
+    public ParseOptions withLazyNumbers(boolean enabled) {
+        return new ParseOptions(enabled, internKeys, parallelThreshold, primitiveArrays, compactObjects);
+    }
+
+    /**
+     * When enabled, identical object keys share one String instance through
+     * a {@link KeyCache} table shared across threads, so keys are also
+     * shared between documents loaded on different threads, as by
+     * {@code NSON.loadAll}.
+     */
+    public ParseOptions withInternKeys(boolean enabled) {
+        return new ParseOptions(lazyNumbers, enabled, parallelThreshold, primitiveArrays, compactObjects);
+    }
+
+    /**
+     * Sets the input size, in bytes or characters, from which a top-level
+     * array is split by {@link ParallelArrayParser} and its elements parsed
+     * in parallel. Disabled ({@code Long.MAX_VALUE}) by default.
+     */
+    public ParseOptions withParallelThreshold(long size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("Parallel threshold must not be negative: " + size);
+        }
+        return new ParseOptions(lazyNumbers, internKeys, size, primitiveArrays, compactObjects);
+    }
+
+    /**
+     * When enabled, non-empty arrays whose elements are all numbers are
+     * returned as a read-only {@link LongArrayList} (all integers) or
+     * {@link DoubleArrayList} (any decimal) instead of an {@code ArrayList}
+     * of boxed values. Arrays with other elements, or with numbers that do
+     * not fit a long or double exactly, stay ArrayLists. Has no effect
+     * together with lazy numbers.
+     */
+    public ParseOptions withPrimitiveArrays(boolean enabled) {
+        return new ParseOptions(lazyNumbers, internKeys, parallelThreshold, enabled, compactObjects);
+    }
+
+    /**
+     * When enabled, objects are returned as immutable, insertion-ordered
+     * {@link CompactMap} instances instead of {@code HashMap}s. A small
+     * CompactMap takes less than half the memory of the equivalent HashMap.
+     */
+    public ParseOptions withCompactObjects(boolean enabled) {
+        return new ParseOptions(lazyNumbers, internKeys, parallelThreshold, primitiveArrays, enabled);
+    }
+
+    public boolean lazyNumbers() {
+        return lazyNumbers;
+    }
+
+    public boolean internKeys() {
+        return internKeys;
+    }
+
+    public long parallelThreshold() {
+        return parallelThreshold;
+    }
+
+    public boolean primitiveArrays() {
+        return primitiveArrays;
+    }
+
+    public boolean compactObjects() {
+        return compactObjects;
+    }
+
+    /**
+     * Returns the key cache to use for a parse, or {@code null} if keys are
+     * not interned.
+     */
+    KeyCache keyCache() {
+        return internKeys ? KeyCache.forCurrentThread() : null;
+    }
+}
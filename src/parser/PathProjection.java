@@ -0,0 +1,337 @@
+package src.parser;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * =============================================================================
+ * PathProjection.java
+ * =============================================================================
+ *
+ * Compiled set of JSONPath-like selectors that extracts only the selected
+ * values from a document, behind {@code NSON.loads(String, String...)}.
+ *
+ * SELECTOR SYNTAX:
+ * ----------------
+ * - {@code $}                      the whole document
+ * - {@code .name} or {@code ['name']} an object member
+ * - {@code .*}                     every member of an object
+ * - {@code [3]}                    an array element
+ * - {@code [*]}                    every element of an array
+ *
+ * The selectors are merged into one tree of steps, and the document is
+ * walked once with {@link JSONParser}. Members and elements that no
+ * selector reaches are skipped by bracket matching without being built;
+ * unmatched keys are compared in place and never allocated. Only the
+ * selected values are materialized, so skipped subtrees are checked for
+ * balanced brackets rather than full syntax.
+ *
+ * RESULT:
+ * -------
+ * A Map from each selector, in the order given, to its value. Selectors
+ * with a wildcard map to a List of every match and are always present.
+ * Other selectors are present only if the path exists.
+ *
+ * EXAMPLE USAGE:
+ * --------------
+ * PathProjection projection = PathProjection.compile("$.user.id", "$.items[*].price");
+ * Map<String, Object> values = projection.project(json, ParseOptions.DEFAULT);
+ *
+ * =============================================================================
+ */
+public final class PathProjection {
+
+    private static final String[] NO_NAMES = new String[0];
+
+    private final String[] selectors;
+    private final boolean[] multi;
+    private final Node root = new Node();
+
+    private PathProjection(String[] selectors) {
+        this.selectors = selectors.clone();
+        this.multi = new boolean[selectors.length];
+        for (int i = 0; i < selectors.length; i++) {
+            add(i, selectors[i]);
+        }
+        root.seal();
+    }
+
+    /**
+     * Compiles {@code selectors}. A compiled projection is immutable and can
+     * be reused across threads.
+     *
+     * @throws IllegalArgumentException If a selector is malformed.
+     */
+    public static PathProjection compile(String... selectors) {
+        return new PathProjection(selectors);
+    }
+
+    /**
+     * Extracts the selected values from {@code json}.
+     *
+     * @throws src.exception.JSONParseException If the document is malformed.
+     */
+    public Map<String, Object> project(String json, ParseOptions options) {
+        Object[] found = new Object[selectors.length];
+        boolean[] present = new boolean[selectors.length];
+        for (int i = 0; i < selectors.length; i++) {
+            if (multi[i]) {
+                found[i] = new ArrayList<>();
+                present[i] = true;
+            }
+        }
+        JSONParser parser = new JSONParser(json, options);
+        new Walk(found, present).walk(parser, root);
+        parser.expectEnd();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (int i = 0; i < selectors.length; i++) {
+            if (present[i]) {
+                result.put(selectors[i], found[i]);
+            }
+        }
+        return result;
+    }
+
+    // ------------------------------------------------------------------------
+    // 1. ------------------------- Compilation -------------------------------
+    // ------------------------------------------------------------------------
+
+    /**
+     * One position in the selector tree. Named member steps are kept in
+     * parallel arrays so keys can be matched without allocation.
+     */
+    private static final class Node {
+
+        /** Selectors that end at this node. */
+        int[] terminals = new int[0];
+
+        List<String> nameList = new ArrayList<>();
+        List<Node> nameChildren = new ArrayList<>();
+        String[] names = NO_NAMES;
+        Node[] children;
+        Node anyMember;
+
+        List<Integer> indexList = new ArrayList<>();
+        List<Node> indexChildren = new ArrayList<>();
+        Node anyElement;
+
+        Node member(String name) {
+            int i = nameList.indexOf(name);
+            if (i >= 0) {
+                return nameChildren.get(i);
+            }
+            Node child = new Node();
+            nameList.add(name);
+            nameChildren.add(child);
+            return child;
+        }
+
+        Node element(int index) {
+            int i = indexList.indexOf(index);
+            if (i >= 0) {
+                return indexChildren.get(i);
+            }
+            Node child = new Node();
+            indexList.add(index);
+            indexChildren.add(child);
+            return child;
+        }
+
+        Node elementAt(int index) {
+            int i = indexList.indexOf(index);
+            return i >= 0 ? indexChildren.get(i) : null;
+        }
+
+        boolean hasMembers() {
+            return names.length > 0 || anyMember != null;
+        }
+
+        boolean hasElements() {
+            return !indexList.isEmpty() || anyElement != null;
+        }
+
+        void seal() {
+            names = nameList.toArray(NO_NAMES);
+            children = nameChildren.toArray(new Node[0]);
+            for (Node child : children) {
+                child.seal();
+            }
+            for (Node child : indexChildren) {
+                child.seal();
+            }
+            if (anyMember != null) {
+                anyMember.seal();
+            }
+            if (anyElement != null) {
+                anyElement.seal();
+            }
+        }
+    }
+
+    private void add(int selector, String path) {
+        if (path == null || !path.startsWith("$")) {
+            throw new IllegalArgumentException("Selector must start with '$': " + path);
+        }
+        Node node = root;
+        int i = 1;
+        int n = path.length();
+        while (i < n) {
+            char ch = path.charAt(i);
+            if (ch == '.') {
+                int start = ++i;
+                while (i < n && path.charAt(i) != '.' && path.charAt(i) != '[') {
+                    i++;
+                }
+                String name = path.substring(start, i);
+                if (name.isEmpty()) {
+                    throw new IllegalArgumentException("Empty member name at index " + start + " in " + path);
+                }
+                if (name.equals("*")) {
+                    node = node.anyMember != null ? node.anyMember : (node.anyMember = new Node());
+                    multi[selector] = true;
+                } else {
+                    node = node.member(name);
+                }
+            } else if (ch == '[') {
+                int close = path.indexOf(']', i);
+                if (close < 0) {
+                    throw new IllegalArgumentException("Unclosed '[' at index " + i + " in " + path);
+                }
+                String inside = path.substring(i + 1, close).trim();
+                if (inside.equals("*")) {
+                    node = node.anyElement != null ? node.anyElement : (node.anyElement = new Node());
+                    multi[selector] = true;
+                } else if (inside.length() >= 2 && (inside.charAt(0) == '\'' || inside.charAt(0) == '"')
+                        && inside.charAt(inside.length() - 1) == inside.charAt(0)) {
+                    node = node.member(inside.substring(1, inside.length() - 1));
+                } else {
+                    try {
+                        int index = Integer.parseInt(inside);
+                        if (index < 0) {
+                            throw new NumberFormatException();
+                        }
+                        node = node.element(index);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Invalid index '" + inside + "' in " + path);
+                    }
+                }
+                i = close + 1;
+            } else {
+                throw new IllegalArgumentException("Unexpected '" + ch + "' at index " + i + " in " + path);
+            }
+        }
+        node.terminals = Arrays.copyOf(node.terminals, node.terminals.length + 1);
+        node.terminals[node.terminals.length - 1] = selector;
+    }
+
+    // ------------------------------------------------------------------------
+    // 2. --------------------------- Walking ---------------------------------
+    // ------------------------------------------------------------------------
+
+    /** State of one {@link #project} call. */
+    private final class Walk {
+
+        private final Object[] found;
+        private final boolean[] present;
+
+        Walk(Object[] found, boolean[] present) {
+            this.found = found;
+            this.present = present;
+        }
+
+        /**
+         * Walks the value at the cursor. A value that some selector ends at
+         * is built once and the remaining steps are applied to the built
+         * tree; a member reached by both a name and {@code .*} is handled
+         * the same way.
+         */
+        void walk(JSONParser parser, Node node) {
+            int ch = parser.peekChar();
+            if (node.terminals.length > 0) {
+                collect(node, parser.readValue());
+            } else if (ch == '{' && node.hasMembers()) {
+                if (!parser.beginContainer()) {
+                    return;
+                }
+                do {
+                    int match = parser.readKey(node.names);
+                    if (match >= 0 && node.anyMember != null) {
+                        Object value = parser.readValue();
+                        collect(node.children[match], value);
+                        collect(node.anyMember, value);
+                    } else if (match >= 0) {
+                        walk(parser, node.children[match]);
+                    } else if (node.anyMember != null) {
+                        walk(parser, node.anyMember);
+                    } else {
+                        parser.skipValue();
+                    }
+                } while (parser.nextMember('}'));
+            } else if (ch == '[' && node.hasElements()) {
+                if (!parser.beginContainer()) {
+                    return;
+                }
+                int index = 0;
+                do {
+                    Node child = node.elementAt(index++);
+                    if (child != null && node.anyElement != null) {
+                        Object value = parser.readValue();
+                        collect(child, value);
+                        collect(node.anyElement, value);
+                    } else if (child != null || node.anyElement != null) {
+                        walk(parser, child != null ? child : node.anyElement);
+                    } else {
+                        parser.skipValue();
+                    }
+                } while (parser.nextMember(']'));
+            } else {
+                parser.skipValue();
+            }
+        }
+
+        /** Applies the steps below {@code node} to an already built value. */
+        void collect(Node node, Object value) {
+            for (int selector : node.terminals) {
+                record(selector, value);
+            }
+            if (value instanceof Map<?, ?> map) {
+                for (int i = 0; i < node.names.length; i++) {
+                    if (map.containsKey(node.names[i])) {
+                        collect(node.children[i], map.get(node.names[i]));
+                    }
+                }
+                if (node.anyMember != null) {
+                    for (Object member : map.values()) {
+                        collect(node.anyMember, member);
+                    }
+                }
+            } else if (value instanceof List<?> list) {
+                for (int i = 0; i < node.indexList.size(); i++) {
+                    int index = node.indexList.get(i);
+                    if (index < list.size()) {
+                        collect(node.indexChildren.get(i), list.get(index));
+                    }
+                }
+                if (node.anyElement != null) {
+                    for (Object element : list) {
+                        collect(node.anyElement, element);
+                    }
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private void record(int selector, Object value) {
+            if (multi[selector]) {
+                ((List<Object>) found[selector]).add(value);
+            } else {
+                found[selector] = value;
+                present[selector] = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,467 @@
+package src.parser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import src.exception.JSONParseException;
+import src.utility.ByteSource;
+import src.utility.StructuralScanner;
+
+/**
+ * =============================================================================
+ * Utf8Parser.java
+ * =============================================================================
+ *
+ * Recursive-descent parser that works directly on UTF-8 bytes, typically a
+ * memory-mapped file exposed through {@link ByteSource}.
+ *
+ * The input is never decoded as a whole: structural characters are matched
+ * as bytes, and only keys and string values that end up in the tree are
+ * turned into Strings. Pure ASCII strings skip UTF-8 decoding entirely.
+ * String bodies are scanned a word at a time by {@link StructuralScanner}.
+ *
+ * Produces the same tree as {@link JSONParser}, including typed numbers.
+ *
+ * =============================================================================
+ */
+public class Utf8Parser {
+
+    private static final StructuralScanner SCANNER = StructuralScanner.INSTANCE;
+
+    private final ByteSource in;
+    private final ParseOptions options;
+    private final KeyCache keyCache;
+    private final long end;
+    private long pos;
+    private int depth;
+
+    /** Reusable buffer for decoding strings and literals. */
+    private byte[] scratch = new byte[64];
+
+    public Utf8Parser(ByteSource in) {
+        this(in, ParseOptions.DEFAULT);
+    }
+
+    public Utf8Parser(ByteSource in, ParseOptions options) {
+        this(in, 0, in.size(), options);
+    }
+
+    /**
+     * Creates a parser over the region {@code [start, end)} of {@code in}.
+     */
+    public Utf8Parser(ByteSource in, long start, long end, ParseOptions options) {
+        if (start < 0 || end > in.size() || start > end) {
+            throw new IndexOutOfBoundsException("Invalid region [" + start + ", " + end + ") for size " + in.size());
+        }
+        this.in = in;
+        this.options = options;
+        this.keyCache = options.keyCache();
+        this.pos = start;
+        this.end = end;
+        skipByteOrderMark();
+    }
+
+    // ------------------------------------------------------------------------
+    // 1. ------------------------- Entry Points ------------------------------
+    // ------------------------------------------------------------------------
+
+    /**
+     * Parses a complete document whose root must be a JSON object.
+     */
+    public static Map<String, Object> parseObject(ByteSource in) {
+        return parseObject(in, ParseOptions.DEFAULT);
+    }
+
+    public static Map<String, Object> parseObject(ByteSource in, ParseOptions options) {
+        Utf8Parser parser = new Utf8Parser(in, options);
+        parser.skipWhitespace();
+        if (parser.pos >= parser.end || parser.in.get(parser.pos) != '{') {
+            throw parser.error("Expected '{' at document root");
+        }
+        Map<String, Object> map = parser.readObject();
+        parser.expectEnd();
+        return map;
+    }
+
+    /**
+     * Parses a complete document whose root must be a JSON array.
+     */
+    public static List<Object> parseArray(ByteSource in, ParseOptions options) {
+        Utf8Parser parser = new Utf8Parser(in, options);
+        parser.skipWhitespace();
+        if (parser.pos >= parser.end || parser.in.get(parser.pos) != '[') {
+            throw parser.error("Expected '[' at document root");
+        }
+        List<Object> list = parser.readArray();
+        parser.expectEnd();
+        return list;
+    }
+
+    public Object parseDocument() {
+        Object value = readValue();
+        expectEnd();
+        return value;
+    }
+
+    // ------------------------------------------------------------------------
+    // 2. ------------------------- Value Readers -----------------------------
+    // ------------------------------------------------------------------------
+
+    Object readValue() {
+        skipWhitespace();
+        if (pos >= end) {
+            throw error("Unexpected end of input");
+        }
+        switch (in.get(pos)) {
+            case '{':
+                return readObject();
+            case '[':
+                return readArray();
+            case '"':
+            case '\'':
+                return readString();
+            default:
+                return readLiteral();
+        }
+    }
+
+    Map<String, Object> readObject() {
+        enter();
+        pos++; // '{'
+        CompactMap.Builder compact = options.compactObjects() ? new CompactMap.Builder() : null;
+        Map<String, Object> map = compact == null ? new HashMap<>() : null;
+        skipWhitespace();
+        if (pos < end && in.get(pos) == '}') {
+            pos++;
+            depth--;
+            return compact != null ? CompactMap.EMPTY : map;
+        }
+
+        while (true) {
+            skipWhitespace();
+            if (pos >= end) {
+                throw error("Unterminated object");
+            }
+            byte b = in.get(pos);
+            if (b != '"' && b != '\'') {
+                throw error("Expected string key");
+            }
+            String key = readString(keyCache);
+            skipWhitespace();
+            if (pos >= end || in.get(pos) != ':') {
+                throw error("Expected ':' after key");
+            }
+            pos++;
+            if (compact != null) {
+                compact.put(key, readValue());
+            } else {
+                map.put(key, readValue());
+            }
+
+            skipWhitespace();
+            if (pos >= end) {
+                throw error("Unterminated object");
+            }
+            b = in.get(pos++);
+            if (b == '}') {
+                break;
+            }
+            if (b != ',') {
+                pos--;
+                throw error("Expected ',' or '}' in object");
+            }
+        }
+        depth--;
+        return compact != null ? compact.build() : map;
+    }
+
+    List<Object> readArray() {
+        enter();
+        pos++; // '['
+        skipWhitespace();
+        if (pos < end && in.get(pos) == ']') {
+            pos++;
+            depth--;
+            return new ArrayList<>();
+        }
+
+        // Numbers are collected unboxed until the first element that does not fit
+        NumericArrayBuilder numbers = options.primitiveArrays() ? new NumericArrayBuilder() : null;
+        List<Object> list = numbers == null ? new ArrayList<>() : null;
+        while (true) {
+            Object value = readValue();
+            if (numbers == null) {
+                list.add(value);
+            } else if (!numbers.add(value)) {
+                list = numbers.toList();
+                list.add(value);
+                numbers = null;
+            }
+            skipWhitespace();
+            if (pos >= end) {
+                throw error("Unterminated array");
+            }
+            byte b = in.get(pos++);
+            if (b == ']') {
+                break;
+            }
+            if (b != ',') {
+                pos--;
+                throw error("Expected ',' or ']' in array");
+            }
+        }
+        depth--;
+        return numbers != null ? numbers.build() : list;
+    }
+
+    String readString() {
+        return readString(null);
+    }
+
+    /**
+     * Reads a string, canonicalizing unescaped values through {@code cache}
+     * when one is given.
+     */
+    String readString(KeyCache cache) {
+        byte quote = in.get(pos);
+        long start = pos + 1;
+        long p = SCANNER.nextQuoteOrEscape(in, start, end, quote);
+        if (p >= end) {
+            pos = p;
+            throw error("Unterminated string");
+        }
+        if (in.get(p) == '\\') {
+            return readEscapedString(quote, start);
+        }
+        pos = p + 1;
+        int length = checkedLength(p - start);
+        boolean nonAscii = !SCANNER.isAscii(in, start, p);
+        return cache != null ? cache.get(in, start, length, nonAscii) : decode(start, length, nonAscii);
+    }
+
+    /**
+     * Slow path for strings containing escapes: unescaped bytes and the UTF-8
+     * encoding of each escape are collected in {@code scratch}, then decoded
+     * once. An unpaired escaped surrogate has no UTF-8 form; it is appended
+     * as a {@code char}, as the char-based parsers keep it.
+     */
+    private String readEscapedString(byte quote, long start) {
+        int n = 0;
+        StringBuilder decoded = null; // only for unpaired surrogates
+        long p = start;
+        while (true) {
+            if (p >= end) {
+                pos = p;
+                throw error("Unterminated string");
+            }
+            byte b = in.get(p);
+            if (b == quote) {
+                pos = p + 1;
+                String tail = new String(scratch, 0, n, StandardCharsets.UTF_8);
+                return decoded == null ? tail : decoded.append(tail).toString();
+            }
+            if (b != '\\') {
+                long run = SCANNER.nextQuoteOrEscape(in, p, end, quote);
+                int length = checkedLength(run - p);
+                ensureScratch(n + length);
+                in.get(p, scratch, n, length);
+                n += length;
+                p = run;
+                continue;
+            }
+            if (p + 1 >= end) {
+                pos = p;
+                throw error("Unterminated escape sequence");
+            }
+            byte esc = in.get(p + 1);
+            p += 2;
+            int code;
+            switch (esc) {
+                case '"':  code = '"';  break;
+                case '\'': code = '\''; break;
+                case '\\': code = '\\'; break;
+                case '/':  code = '/';  break;
+                case 'b':  code = '\b'; break;
+                case 'f':  code = '\f'; break;
+                case 'n':  code = '\n'; break;
+                case 'r':  code = '\r'; break;
+                case 't':  code = '\t'; break;
+                case 'u':
+                    code = readHex4(p);
+                    p += 4;
+                    if (Character.isHighSurrogate((char) code) && p + 6 <= end
+                            && in.get(p) == '\\' && in.get(p + 1) == 'u') {
+                        int low = readHex4(p + 2);
+                        if (Character.isLowSurrogate((char) low)) {
+                            code = Character.toCodePoint((char) code, (char) low);
+                            p += 6;
+                        }
+                    }
+                    break;
+                default:
+                    pos = p - 1;
+                    throw error("Invalid escape character '" + (char) esc + "'");
+            }
+            if (code >= Character.MIN_SURROGATE && code <= Character.MAX_SURROGATE) {
+                if (decoded == null) {
+                    decoded = new StringBuilder(n + 16);
+                }
+                decoded.append(new String(scratch, 0, n, StandardCharsets.UTF_8)).append((char) code);
+                n = 0;
+                continue;
+            }
+            ensureScratch(n + 4);
+            n = encodeUtf8(code, scratch, n);
+        }
+    }
+
+    /**
+     * Reads a bare literal: a number, {@code true}, {@code false} or
+     * {@code null}. Number digits are converted straight from the bytes.
+     */
+    Object readLiteral() {
+        long start = pos;
+        while (pos < end && !isDelimiter(in.get(pos))) {
+            pos++;
+        }
+        if (pos == start) {
+            throw error("Unexpected character '" + (char) in.get(pos) + "'");
+        }
+        int length = checkedLength(pos - start);
+        if (isKeyword(start, length, "true")) return Boolean.TRUE;
+        if (isKeyword(start, length, "false")) return Boolean.FALSE;
+        if (isKeyword(start, length, "null")) return null;
+
+        ensureScratch(length);
+        in.get(start, scratch, 0, length);
+        Object number;
+        if (options.lazyNumbers()) {
+            String text = new String(scratch, 0, length, StandardCharsets.ISO_8859_1);
+            number = JSONNumbers.isNumber(text, 0, length) ? new LazyNumber(text) : null;
+        } else {
+            number = JSONNumbers.parse(scratch, 0, length);
+        }
+        if (number == null) {
+            pos = start;
+            throw error("Invalid literal");
+        }
+        return number;
+    }
+
+    // ------------------------------------------------------------------------
+    // 3. --------------------------- Helpers ---------------------------------
+    // ------------------------------------------------------------------------
+
+    void skipWhitespace() {
+        while (pos < end) {
+            byte b = in.get(pos);
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                return;
+            }
+            pos++;
+        }
+    }
+
+    void expectEnd() {
+        skipWhitespace();
+        if (pos != end) {
+            throw error("Unexpected trailing content");
+        }
+    }
+
+    private void skipByteOrderMark() {
+        if (end - pos >= 3 && in.get(pos) == (byte) 0xEF && in.get(pos + 1) == (byte) 0xBB && in.get(pos + 2) == (byte) 0xBF) {
+            pos += 3;
+        }
+    }
+
+    private String decode(long start, int length, boolean nonAscii) {
+        ensureScratch(length);
+        in.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, nonAscii ? StandardCharsets.UTF_8 : StandardCharsets.ISO_8859_1);
+    }
+
+    private boolean isKeyword(long start, int length, String keyword) {
+        if (length != keyword.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (in.get(start + i) != keyword.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int readHex4(long p) {
+        if (p + 4 > end) {
+            pos = p;
+            throw error("Truncated unicode escape");
+        }
+        int code = 0;
+        for (int k = 0; k < 4; k++) {
+            int digit = Character.digit(in.get(p + k), 16);
+            if (digit < 0) {
+                pos = p + k;
+                throw error("Invalid unicode escape");
+            }
+            code = (code << 4) | digit;
+        }
+        return code;
+    }
+
+    private static int encodeUtf8(int code, byte[] dst, int n) {
+        if (code < 0x80) {
+            dst[n++] = (byte) code;
+        } else if (code < 0x800) {
+            dst[n++] = (byte) (0xC0 | (code >> 6));
+            dst[n++] = (byte) (0x80 | (code & 0x3F));
+        } else if (code < 0x10000) {
+            dst[n++] = (byte) (0xE0 | (code >> 12));
+            dst[n++] = (byte) (0x80 | ((code >> 6) & 0x3F));
+            dst[n++] = (byte) (0x80 | (code & 0x3F));
+        } else {
+            dst[n++] = (byte) (0xF0 | (code >> 18));
+            dst[n++] = (byte) (0x80 | ((code >> 12) & 0x3F));
+            dst[n++] = (byte) (0x80 | ((code >> 6) & 0x3F));
+            dst[n++] = (byte) (0x80 | (code & 0x3F));
+        }
+        return n;
+    }
+
+    private void ensureScratch(int capacity) {
+        if (capacity > scratch.length) {
+            scratch = Arrays.copyOf(scratch, Math.max(capacity, scratch.length * 2));
+        }
+    }
+
+    private int checkedLength(long length) {
+        if (length > Integer.MAX_VALUE - 8) {
+            throw error("Token too large");
+        }
+        return (int) length;
+    }
+
+    private void enter() {
+        if (++depth > JSONParser.MAX_DEPTH) {
+            throw error("Maximum nesting depth of " + JSONParser.MAX_DEPTH + " exceeded");
+        }
+    }
+
+    private static boolean isDelimiter(byte b) {
+        return b == ',' || b == '}' || b == ']' || b == ':'
+            || b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+
+    long position() {
+        return pos;
+    }
+
+    JSONParseException error(String message) {
+        return new JSONParseException(message + " at byte offset " + pos);
+    }
+}
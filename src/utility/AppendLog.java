@@ -0,0 +1,401 @@
+package src.utility;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import src.exception.JSONFileException;
+import src.writer.JSONWriter;
+
+/**
+ * =============================================================================
+ * AppendLog.java
+ * =============================================================================
+ *
+ * Long-lived, append-only JSON Lines writer with group commit.
+ *
+ * The file channel stays open for the life of the log. Producers on any
+ * thread serialize and encode their record themselves and hand the bytes
+ * to a single writer thread through a lock-free queue. The writer drains
+ * the queue into one buffer, writes it with as few system calls as the
+ * backlog allows, and forces the file to disk according to a
+ * {@link CommitPolicy}: after a number of records or after a delay since
+ * the first unsynced record, whichever comes first.
+ *
+ * {@link #append} returns as soon as the record is queued, unless the
+ * records waiting for the writer already hold
+ * {@link CommitPolicy#maxQueuedBytes()} bytes (16 MiB by default): then it
+ * blocks until the writer has caught up, so producers faster than the disk
+ * are slowed to its pace instead of filling the heap. A record larger than
+ * the limit is queued once the queue is empty.
+ *
+ * Callers that need durability call {@link #sync()}, which waits for the
+ * next commit; concurrent callers share one fsync. A write error stops the
+ * log and is reported by every later call.
+ *
+ * EXAMPLE USAGE:
+ * --------------
+ * try (AppendLog log = new FileAccess("audit.jsonl").openAppendLog(AppendLog.CommitPolicy.DEFAULT)) {
+ *     log.append(Map.of("user", "nikhil", "action", "login"));
+ * }
+ *
+ * =============================================================================
+ */
+public final class AppendLog implements Closeable {
+
+    /** Size of the writer's batch buffer. */
+    public static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final byte NEWLINE = '\n';
+
+    /**
+     * Immutable group-commit settings. Each {@code with...} method returns
+     * a modified copy.
+     */
+    public static final class CommitPolicy {
+
+        /** Default bound on the bytes of queued records: 16 MiB. */
+        public static final long DEFAULT_MAX_QUEUED_BYTES = 16L * 1024 * 1024;
+
+        /** Sync after 1000 records or 100 ms, whichever comes first. */
+        public static final CommitPolicy DEFAULT = new CommitPolicy(1000, 100, DEFAULT_MAX_QUEUED_BYTES);
+
+        /** Sync after every record; the slowest and safest setting. */
+        public static final CommitPolicy EVERY_RECORD = new CommitPolicy(1, 0, DEFAULT_MAX_QUEUED_BYTES);
+
+        private final int maxRecords;
+        private final long maxDelayMillis;
+        private final long maxQueuedBytes;
+
+        private CommitPolicy(int maxRecords, long maxDelayMillis, long maxQueuedBytes) {
+            this.maxRecords = maxRecords;
+            this.maxDelayMillis = maxDelayMillis;
+            this.maxQueuedBytes = maxQueuedBytes;
+        }
+
+        /**
+         * Sets the number of unsynced records that triggers a sync.
+         */
+        public CommitPolicy withMaxRecords(int records) {
+            if (records < 1) {
+                throw new IllegalArgumentException("maxRecords must be positive: " + records);
+            }
+            return new CommitPolicy(records, maxDelayMillis, maxQueuedBytes);
+        }
+
+        /**
+         * Sets how long the first unsynced record may wait for a sync.
+         * Zero syncs whenever the queue runs empty.
+         */
+        public CommitPolicy withMaxDelayMillis(long millis) {
+            if (millis < 0) {
+                throw new IllegalArgumentException("maxDelayMillis must not be negative: " + millis);
+            }
+            return new CommitPolicy(maxRecords, millis, maxQueuedBytes);
+        }
+
+        /**
+         * Sets how many bytes of records may wait for the writer before
+         * {@code append} blocks.
+         */
+        public CommitPolicy withMaxQueuedBytes(long bytes) {
+            if (bytes < 1) {
+                throw new IllegalArgumentException("maxQueuedBytes must be positive: " + bytes);
+            }
+            return new CommitPolicy(maxRecords, maxDelayMillis, bytes);
+        }
+
+        public int maxRecords() {
+            return maxRecords;
+        }
+
+        public long maxDelayMillis() {
+            return maxDelayMillis;
+        }
+
+        public long maxQueuedBytes() {
+            return maxQueuedBytes;
+        }
+    }
+
+    private final Path path;
+    private final CommitPolicy policy;
+    private final FileChannel channel;
+    private final ConcurrentLinkedQueue<byte[]> queue = new ConcurrentLinkedQueue<>();
+    private final Thread writer;
+
+    /** Records handed to the queue. */
+    private final AtomicLong appended = new AtomicLong();
+    /** Bytes of the records in the queue. */
+    private final AtomicLong queuedBytes = new AtomicLong();
+    private volatile boolean producersWaiting;
+    /** Records forced to disk; written by the writer thread only. */
+    private volatile long synced;
+    private volatile boolean syncRequested;
+    private volatile boolean closed;
+    private volatile IOException failure;
+
+    /**
+     * Opens {@code path} for appending, creating it if needed, and starts
+     * the writer thread.
+     */
+    public AppendLog(Path path, CommitPolicy policy) throws IOException {
+        this.path = path;
+        this.policy = policy;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.writer = new Thread(this::run, "nson-append-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues {@code value} as one compact JSON line, blocking while the
+     * queue is full.
+     *
+     * @throws JSONFileException If the log is closed or has failed, or the
+     *                           thread is interrupted while blocked.
+     */
+    public void append(Object value) {
+        appendLine(JSONWriter.toJson(value, 0, false));
+    }
+
+    /**
+     * Queues a line that is already JSON. It must not contain a line break.
+     *
+     * @throws IllegalArgumentException If {@code json} spans several lines.
+     * @throws JSONFileException        If the log is closed or has failed,
+     *                                  or the thread is interrupted while
+     *                                  blocked on a full queue.
+     */
+    public void appendLine(String json) {
+        if (json.indexOf('\n') >= 0 || json.indexOf('\r') >= 0) {
+            throw new IllegalArgumentException("A JSON Lines record must not contain line breaks");
+        }
+        checkOpen();
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        awaitQueueSpace(bytes.length);
+        queuedBytes.addAndGet(bytes.length);
+        appended.incrementAndGet();
+        queue.offer(bytes);
+        LockSupport.unpark(writer);
+    }
+
+    /**
+     * Blocks until every record appended before this call is on disk.
+     *
+     * @throws JSONFileException If the log fails before that.
+     */
+    public void sync() {
+        long target = appended.get();
+        syncRequested = true;
+        LockSupport.unpark(writer);
+        synchronized (this) {
+            while (synced < target && failure == null && writer.isAlive()) {
+                try {
+                    wait(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new JSONFileException("Interrupted while syncing " + path);
+                }
+                if (synced < target) {
+                    syncRequested = true;
+                    LockSupport.unpark(writer);
+                }
+            }
+        }
+        checkFailure();
+        if (synced < target) {
+            throw new JSONFileException("Append log closed before syncing " + path);
+        }
+    }
+
+    /**
+     * Writes and syncs everything queued, stops the writer thread and closes
+     * the file. Records must not be appended concurrently with close.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        LockSupport.unpark(writer);
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        checkFailure();
+    }
+
+    /** Number of records known to be on disk. */
+    public long syncedCount() {
+        return synced;
+    }
+
+    public Path path() {
+        return path;
+    }
+
+    // ------------------------------------------------------------------------
+    // 1. ------------------------- Writer Thread -----------------------------
+    // ------------------------------------------------------------------------
+
+    private void run() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        long written = 0;
+        long firstUnsynced = 0;
+        long delayNanos = TimeUnit.MILLISECONDS.toNanos(policy.maxDelayMillis);
+        try {
+            while (true) {
+                byte[] record = queue.poll();
+                if (record != null) {
+                    queuedBytes.addAndGet(-record.length);
+                    if (producersWaiting) {
+                        producersWaiting = false;
+                        notifySynced();
+                    }
+                    if (written == synced) {
+                        firstUnsynced = System.nanoTime();
+                    }
+                    put(buffer, record);
+                    written++;
+                    if (written - synced >= policy.maxRecords) {
+                        commit(buffer, written);
+                    }
+                    continue;
+                }
+
+                // Queue is empty: write out the batch and decide whether to sync
+                long pending = written - synced;
+                boolean due = pending > 0
+                    && (syncRequested || closed || System.nanoTime() - firstUnsynced >= delayNanos);
+                if (due || (pending > 0 && buffer.position() > 0)) {
+                    drain(buffer);
+                }
+                if (due) {
+                    commit(buffer, written);
+                } else if (syncRequested && pending == 0) {
+                    syncRequested = false;
+                    notifySynced();
+                }
+                if (closed && queue.isEmpty()) {
+                    return;
+                }
+                if (queue.isEmpty()) {
+                    if (written > synced) {
+                        LockSupport.parkNanos(this, Math.max(0, delayNanos - (System.nanoTime() - firstUnsynced)));
+                    } else {
+                        LockSupport.park(this);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            failure = e;
+            notifySynced();
+        }
+    }
+
+    private void put(ByteBuffer buffer, byte[] record) throws IOException {
+        if (buffer.remaining() < record.length + 1) {
+            drain(buffer);
+            if (buffer.capacity() < record.length + 1) {
+                // Larger than the whole buffer: write it directly
+                writeFully(ByteBuffer.wrap(record));
+                buffer.put(NEWLINE);
+                return;
+            }
+        }
+        buffer.put(record).put(NEWLINE);
+    }
+
+    private void commit(ByteBuffer buffer, long written) throws IOException {
+        drain(buffer);
+        syncRequested = false;
+        channel.force(false);
+        synced = written;
+        notifySynced();
+    }
+
+    private void drain(ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    private synchronized void notifySynced() {
+        notifyAll();
+    }
+
+    // ------------------------------------------------------------------------
+    // 2. --------------------------- Helpers ---------------------------------
+    // ------------------------------------------------------------------------
+
+    /**
+     * Blocks while {@code size} more bytes would take the queue over its
+     * limit. Concurrent producers may each add one record past it.
+     */
+    private void awaitQueueSpace(int size) {
+        long limit = policy.maxQueuedBytes;
+        while (true) {
+            long queued = queuedBytes.get();
+            if (queued == 0 || queued + size <= limit) {
+                return;
+            }
+            LockSupport.unpark(writer);
+            synchronized (this) {
+                producersWaiting = true;
+                if (queuedBytes.get() == queued && failure == null && !closed) {
+                    try {
+                        wait(10);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new JSONFileException("Interrupted while appending to " + path);
+                    }
+                }
+            }
+            checkOpen();
+        }
+    }
+
+    private void checkOpen() {
+        checkFailure();
+        if (closed) {
+            throw new JSONFileException("Append log is closed: " + path);
+        }
+    }
+
+    private void checkFailure() {
+        IOException e = failure;
+        if (e != null) {
+            throw new JSONFileException("Failed to write append log " + path + " (" + e.getMessage() + ")");
+        }
+    }
+}
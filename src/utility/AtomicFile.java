@@ -0,0 +1,139 @@
+package src.utility;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * =============================================================================
+ * AtomicFile.java
+ * =============================================================================
+ *
+ * Crash-safe replacement of a file's contents.
+ *
+ * The new contents are written to a temporary file in the same directory,
+ * forced to disk, and then renamed over the target in one atomic step.
+ * Readers therefore see either the old file or the complete new one, never
+ * a partially written document.
+ *
+ * On POSIX file systems the permissions of an existing target are copied
+ * to the temporary file before the rename, and so are its owner and group
+ * where the process may set them. A new target is created like any other
+ * file, with the permissions the umask allows. A symbolic link is
+ * followed: the file it points to is replaced and the link is kept.
+ *
+ * EXAMPLE USAGE:
+ * --------------
+ * AtomicFile.write(Path.of("state.json"), channel -> channel.write(buffer));
+ *
+ * =============================================================================
+ */
+public final class AtomicFile {
+
+    /**
+     * Writes the contents of a file to an open channel.
+     */
+    @FunctionalInterface
+    public interface ChannelWriter {
+        void writeTo(FileChannel channel) throws IOException;
+    }
+
+    private AtomicFile() {
+    }
+
+    /**
+     * Replaces {@code target} with whatever {@code writer} writes. If the
+     * writer fails, the target is left untouched and the temporary file is
+     * removed. The target's POSIX permissions, and its owner and group
+     * where allowed, are kept.
+     */
+    public static void write(Path target, ChannelWriter writer) throws IOException {
+        Path absolute = target.toAbsolutePath();
+        if (Files.exists(absolute)) {
+            absolute = absolute.toRealPath(); // replace a link's file, not the link
+        }
+        Path dir = absolute.getParent();
+        Path temp = createTemp(dir, "." + absolute.getFileName() + ".");
+        boolean moved = false;
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                writer.writeTo(channel);
+                channel.force(true);
+            }
+            copyAttributes(absolute, temp);
+            try {
+                Files.move(temp, absolute, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING);
+            }
+            moved = true;
+            syncDirectory(dir);
+        } finally {
+            if (!moved) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * Creates an empty file with a random name in {@code dir}. Unlike
+     * {@code Files.createTempFile} it passes no attributes, so the umask
+     * decides the permissions of a new target.
+     */
+    private static Path createTemp(Path dir, String prefix) throws IOException {
+        while (true) {
+            Path temp = dir.resolve(prefix + Long.toUnsignedString(ThreadLocalRandom.current().nextLong()) + ".tmp");
+            try {
+                Files.newByteChannel(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE).close();
+                return temp;
+            } catch (FileAlreadyExistsException e) {
+                // Name taken; draw another
+            }
+        }
+    }
+
+    /**
+     * Gives {@code temp} the permissions of {@code target}, and its owner
+     * and group where the process may change them. Does nothing if the
+     * target does not exist or the file system is not POSIX.
+     */
+    private static void copyAttributes(Path target, Path temp) throws IOException {
+        PosixFileAttributeView view = Files.getFileAttributeView(temp, PosixFileAttributeView.class);
+        if (view == null || !Files.exists(target)) {
+            return;
+        }
+        PosixFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(target, PosixFileAttributes.class);
+        } catch (UnsupportedOperationException e) {
+            return;
+        }
+        view.setPermissions(attributes.permissions());
+        try {
+            view.setGroup(attributes.group());
+            view.setOwner(attributes.owner());
+        } catch (IOException | UnsupportedOperationException e) {
+            // Changing ownership usually needs privileges; best effort
+        }
+    }
+
+    /**
+     * Makes the rename itself durable. Not every platform allows opening a
+     * directory as a channel, in which case this is skipped.
+     */
+    private static void syncDirectory(Path dir) {
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException | UnsupportedOperationException e) {
+            // Directory sync is best effort
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package src.utility;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import src.exception.JSONException;
+import src.exception.JSONFileException;
+
+/**
+ * =============================================================================
+ * BulkLoader.java
+ * =============================================================================
+ *
+ * Loads many small documents concurrently, behind {@code NSON.loadAll()}.
+ *
+ * Every file is read and parsed on its own virtual thread (see
+ * {@link Threads}), and a {@link Semaphore} caps how many run at once so
+ * open file handles stay bounded. Results are delivered as a Stream in
+ * completion order, so the caller can start on the first documents while
+ * the rest are still loading.
+ *
+ * A file that fails to load does not stop the batch: its {@link Result}
+ * carries the exception instead of a document. Use
+ * {@link #failures(Collection)} to collect them.
+ *
+ * Closing the stream cancels the files not yet loaded.
+ *
+ * EXAMPLE USAGE:
+ * --------------
+ * try (Stream<BulkLoader.Result> results = nson.loadAll(paths)) {
+ *     results.forEach(r -> { if (r.isSuccess()) register(r.document()); else log(r.error()); });
+ * }
+ *
+ * =============================================================================
+ */
+public final class BulkLoader {
+
+    /** Files loaded at once by default; high, since loading is mostly I/O wait. */
+    public static final int DEFAULT_CONCURRENCY = 256;
+
+    /** Outcome of loading one file. */
+    public static final class Result {
+
+        private final Path path;
+        private final Map<String, Object> document;
+        private final JSONException error;
+
+        Result(Path path, Map<String, Object> document, JSONException error) {
+            this.path = path;
+            this.document = document;
+            this.error = error;
+        }
+
+        public Path path() {
+            return path;
+        }
+
+        /** The loaded document, or null if loading failed. */
+        public Map<String, Object> document() {
+            return document;
+        }
+
+        /**
+         * The reason loading failed, typically a {@code JSONFileException}
+         * or {@code JSONParseException}; null on success.
+         */
+        public JSONException error() {
+            return error;
+        }
+
+        public boolean isSuccess() {
+            return error == null;
+        }
+
+        @Override
+        public String toString() {
+            return isSuccess() ? "Result[" + path + "]" : "Result[" + path + ", " + error.getMessage() + "]";
+        }
+    }
+
+    private final int maxConcurrency;
+
+    public BulkLoader(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency must be positive: " + maxConcurrency);
+        }
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Loads every path with {@code loader} and returns the results as they
+     * complete. The stream should be closed if it is not fully consumed.
+     */
+    public Stream<Result> load(Collection<Path> paths, Function<Path, Map<String, Object>> loader) {
+        Batch batch = new Batch(new ArrayList<>(paths), loader);
+        batch.start();
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<Result>(batch.total,
+                Spliterator.NONNULL | Spliterator.SIZED) {
+            @Override
+            public boolean tryAdvance(Consumer<? super Result> action) {
+                Result result = batch.next();
+                if (result == null) {
+                    return false;
+                }
+                action.accept(result);
+                return true;
+            }
+        }, false).onClose(batch::cancel);
+    }
+
+    /** Returns the failed results of a finished batch. */
+    public static List<Result> failures(Collection<Result> results) {
+        List<Result> failed = new ArrayList<>();
+        for (Result result : results) {
+            if (!result.isSuccess()) {
+                failed.add(result);
+            }
+        }
+        return failed;
+    }
+
+    // ------------------------------------------------------------------------
+    // 1. ---------------------------- Batch ----------------------------------
+    // ------------------------------------------------------------------------
+
+    /** State of one {@link #load} call. */
+    private final class Batch {
+
+        final List<Path> paths;
+        final Function<Path, Map<String, Object>> loader;
+        final int total;
+        final Semaphore permits = new Semaphore(maxConcurrency);
+        final LinkedBlockingQueue<Result> completed = new LinkedBlockingQueue<>();
+        final ExecutorService executor = Threads.newVirtualThreadPerTaskExecutor();
+        int delivered;
+        volatile boolean cancelled;
+
+        Batch(List<Path> paths, Function<Path, Map<String, Object>> loader) {
+            this.paths = paths;
+            this.loader = loader;
+            this.total = paths.size();
+        }
+
+        void start() {
+            if (total == 0) {
+                executor.shutdown();
+                return;
+            }
+            // The feeder blocks on the semaphore, not the consumer
+            executor.execute(this::feed);
+        }
+
+        private void feed() {
+            for (Path path : paths) {
+                try {
+                    permits.acquire();
+                } catch (InterruptedException e) {
+                    return; // cancelled
+                }
+                if (cancelled) {
+                    return;
+                }
+                try {
+                    executor.execute(() -> {
+                        Result result = null;
+                        try {
+                            result = loadOne(path);
+                        } finally {
+                            // Even an Error must produce a result, or the consumer would wait forever
+                            completed.add(result != null ? result
+                                : new Result(path, null, new JSONFileException("Failed to load " + path)));
+                            permits.release();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    return; // cancelled
+                }
+            }
+        }
+
+        private Result loadOne(Path path) {
+            try {
+                return new Result(path, loader.apply(path), null);
+            } catch (JSONException e) {
+                return new Result(path, null, e);
+            } catch (RuntimeException e) {
+                return new Result(path, null, new JSONFileException("Unexpected error while loading " + path + ": " + e));
+            }
+        }
+
+        /** Next completed result, or null once all were delivered. */
+        Result next() {
+            if (delivered == total || cancelled) {
+                return null;
+            }
+            try {
+                Result result = completed.take();
+                if (++delivered == total) {
+                    executor.shutdown();
+                }
+                return result;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel();
+                throw new JSONFileException("Interrupted while loading files");
+            }
+        }
+
+        void cancel() {
+            cancelled = true;
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package src.utility;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * =============================================================================
+ * ByteSource.java
+ * =============================================================================
+ *
+ * Read-only, random access view over a sequence of bytes addressed with
+ * {@code long} positions. Files are memory-mapped in segments of 1 GiB, so
+ * inputs larger than the 2 GiB limit of a single {@link ByteBuffer} can be
+ * read without ever copying them onto the heap.
+ *
+ * The mapping is released by the garbage collector once the source is no
+ * longer reachable; closing the file channel does not invalidate it.
+ *
+ * EXAMPLE USAGE:
+ * --------------
+ * ByteSource source = ByteSource.map(Path.of("snapshot.json"));
+ * byte first = source.get(0);
+ *
+ * =============================================================================
+ */
+public final class ByteSource {
+
+    public static final int SEGMENT_SHIFT = 30;
+    public static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+    private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    private final ByteBuffer[] segments;
+    private final long size;
+
+    private ByteSource(ByteBuffer[] segments, long size) {
+        for (ByteBuffer segment : segments) {
+            segment.order(ByteOrder.LITTLE_ENDIAN);
+        }
+        this.segments = segments;
+        this.size = size;
+    }
+
+    /**
+     * Memory-maps the whole file read-only.
+     */
+    public static ByteSource map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int count = (int) ((size + SEGMENT_SIZE - 1) >>> SEGMENT_SHIFT);
+            ByteBuffer[] segments = new ByteBuffer[Math.max(count, 1)];
+            if (count == 0) {
+                segments[0] = ByteBuffer.allocate(0);
+            }
+            for (int i = 0; i < count; i++) {
+                long offset = (long) i << SEGMENT_SHIFT;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, Math.min(SEGMENT_SIZE, size - offset));
+            }
+            return new ByteSource(segments, size);
+        }
+    }
+
+    /**
+     * Wraps an in-memory array without copying it.
+     */
+    public static ByteSource wrap(byte[] bytes) {
+        return new ByteSource(new ByteBuffer[] { ByteBuffer.wrap(bytes) }, bytes.length);
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public byte get(long pos) {
+        return segments[(int) (pos >>> SEGMENT_SHIFT)].get((int) (pos & SEGMENT_MASK));
+    }
+
+    /**
+     * Reads 8 bytes starting at {@code pos} as a little-endian long, so the
+     * byte at {@code pos} ends up in the lowest 8 bits. Reads that straddle
+     * two segments are assembled byte by byte.
+     */
+    public long getLong(long pos) {
+        ByteBuffer segment = segments[(int) (pos >>> SEGMENT_SHIFT)];
+        int index = (int) (pos & SEGMENT_MASK);
+        if (index + 8 <= segment.limit()) {
+            return segment.getLong(index);
+        }
+        long word = 0;
+        for (int i = 7; i >= 0; i--) {
+            word = (word << 8) | (get(pos + i) & 0xFF);
+        }
+        return word;
+    }
+
+    /**
+     * Copies {@code length} bytes starting at {@code pos} into {@code dst},
+     * crossing segment boundaries when needed.
+     */
+    public void get(long pos, byte[] dst, int offset, int length) {
+        while (length > 0) {
+            ByteBuffer segment = segments[(int) (pos >>> SEGMENT_SHIFT)];
+            int index = (int) (pos & SEGMENT_MASK);
+            int chunk = Math.min(length, segment.limit() - index);
+            segment.get(index, dst, offset, chunk);
+            pos += chunk;
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package src.utility;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+import src.parser.CompactMap;
+import src.parser.DoubleArrayList;
+import src.parser.LongArrayList;
+
+/**
+ * =============================================================================
+ * DocumentCache.java
+ * =============================================================================
+ *
+ * Cache of parsed documents for {@code NSON.load(File)}, so files that are
+ * loaded over and over are read and parsed only when they change.
+ *
+ * Entries are keyed by canonical path and validated against the file's
+ * size and modification time on every lookup; a changed file is reloaded.
+ * The stamp is taken before the file is read, so a write that races with
+ * the load is picked up by the next lookup.
+ *
+ * The cache holds at most {@code maxBytes}, weighing each document by the
+ * size of its file, and evicts the least recently used documents first.
+ * Documents larger than the whole budget are returned but not cached.
+ *
+ * Cached trees are shared, so they are made unmodifiable: every Map and
+ * List in them is wrapped once, in place, when the document is added.
+ * With {@code ParseOptions.withCompactObjects(true)} the objects are
+ * CompactMaps, which are read-only already and take about half the memory.
+ * Lookups are thread-safe; two threads missing on the same file at the
+ * same time may both load it.
+ *
+ * EXAMPLE USAGE:
+ * --------------
+ * DocumentCache cache = new DocumentCache(64L << 20);
+ * NSON nson = new NSON(ParseOptions.DEFAULT, cache);
+ * Map<String, Object> config = nson.load(new File("config.json"));
+ *
+ * =============================================================================
+ */
+public final class DocumentCache {
+
+    /** Budget used by {@link #DocumentCache()}: 64 MiB of source files. */
+    public static final long DEFAULT_MAX_BYTES = 64L << 20;
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /** One cached document and the file stamp it was loaded from. */
+    private static final class Entry {
+        final long size;
+        final long modified;
+        final Map<String, Object> document;
+
+        Entry(long size, long modified, Map<String, Object> document) {
+            this.size = size;
+            this.modified = modified;
+            this.document = document;
+        }
+    }
+
+    public DocumentCache() {
+        this(DEFAULT_MAX_BYTES);
+    }
+
+    public DocumentCache(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes must not be negative: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the cached document for {@code file} if the file is unchanged,
+     * or loads it with {@code loader} and caches the result.
+     *
+     * @return An unmodifiable document tree.
+     * @throws IOException If the file cannot be inspected.
+     */
+    public Map<String, Object> get(File file, Function<File, Map<String, Object>> loader) throws IOException {
+        Path path = file.toPath().toRealPath();
+        String key = path.toString();
+        BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        long size = attributes.size();
+        long modified = attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.size == size && entry.modified == modified) {
+                hits.increment();
+                return entry.document;
+            }
+        }
+
+        misses.increment();
+        Map<String, Object> document = freezeMap(loader.apply(file));
+        if (size <= maxBytes) {
+            synchronized (this) {
+                Entry previous = entries.put(key, new Entry(size, modified, document));
+                if (previous != null) {
+                    weight -= previous.size;
+                }
+                weight += size;
+                evict();
+            }
+        }
+        return document;
+    }
+
+    /** Drops the cached document for {@code file}, if any. */
+    public void invalidate(File file) {
+        String key;
+        try {
+            key = file.toPath().toRealPath().toString();
+        } catch (IOException e) {
+            key = file.getAbsolutePath();
+        }
+        synchronized (this) {
+            Entry removed = entries.remove(key);
+            if (removed != null) {
+                weight -= removed.size;
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        weight = 0;
+    }
+
+    // ------------------------------------------------------------------------
+    // 1. -------------------------- Statistics -------------------------------
+    // ------------------------------------------------------------------------
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /** Number of cached documents. */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /** Total file size of the cached documents, in bytes. */
+    public synchronized long weight() {
+        return weight;
+    }
+
+    public long maxBytes() {
+        return maxBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "DocumentCache[hits=" + hitCount() + ", misses=" + missCount() + ", evictions=" + evictionCount()
+            + ", size=" + size() + ", weight=" + weight() + "/" + maxBytes + "]";
+    }
+
+    // ------------------------------------------------------------------------
+    // 2. --------------------------- Helpers ---------------------------------
+    // ------------------------------------------------------------------------
+
+    /** Removes least recently used entries until the budget is met. Caller holds the lock. */
+    private void evict() {
+        Iterator<Entry> it = entries.values().iterator();
+        while (weight > maxBytes && it.hasNext()) {
+            weight -= it.next().size;
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    private static Map<String, Object> freezeMap(Map<String, Object> map) {
+        if (map instanceof CompactMap compact) {
+            return compact.mapValues(DocumentCache::freeze); // already read-only itself
+        }
+        map.replaceAll((key, value) -> freeze(value));
+        return Collections.unmodifiableMap(map);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object freeze(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            return freezeMap((Map<String, Object>) map);
+        }
+        if (value instanceof LongArrayList || value instanceof DoubleArrayList) {
+            return value; // already read-only
+        }
+        if (value instanceof List<?> list) {
+            ((List<Object>) list).replaceAll(DocumentCache::freeze);
+            return Collections.unmodifiableList(list);
+        }
+        return value;
+    }
+}
@@ -22,12 +22,15 @@ package src.utility;
  * ✅ Write to file (append or overwrite)  
  * ✅ Save data (alias for write)  
  * ✅ Gracefully handle exceptions and print debug messages  
+ * ✅ Open a long-lived, group-commit JSON Lines log (see AppendLog)  
+ * ✅ Random access to lines and line ranges through a memory-mapped
+ *    line index (see LineIndex), rebuilt when the file's size or
+ *    modification time changes  
  * 
  * SUGGESTED EXTENSIONS:
  * ---------------------
  * ➕ deleteLine(int lineNumber)   — Remove a specific line  
  * ➕ clearFile()                  — Erase all contents of the file  
- * ➕ countLines()                 — Return number of lines  
  * ➕ updateLine(int lineNumber, String newData) — Modify a specific line  
  * ➕ Support .csv, .xml parsing/writing using format-specific methods  
  * 
@@ -44,13 +47,18 @@ package src.utility;
 
 import java.io.File;
 import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.TimeUnit;
 
 public class FileAccess {
     private String filepath;
     private File file;
+    private volatile LineIndex lineIndex;
 
     public FileAccess(String filepath) {
         this.filepath = filepath;
@@ -110,8 +118,31 @@ public class FileAccess {
         }
     }
 
+    /**
+     * Opens a long-lived JSON Lines log on this file that keeps the channel
+     * open and batches writes; prefer it to appendLines for frequent appends.
+     */
+    public AppendLog openAppendLog(AppendLog.CommitPolicy policy) throws IOException {
+        return new AppendLog(file.toPath(), policy);
+    }
+
+    /**
+     * Counts the lines with a line terminator scan over the memory-mapped
+     * file, without decoding it; uses the line index instead if it is
+     * current. Lines are split as in {@link #read()}.
+     */
     public int countLines() {
-        return read().size();
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+            LineIndex index = lineIndex;
+            if (index != null && index.matches(attributes.size(), modified(attributes))) {
+                return index.lineCount();
+            }
+            return (int) Math.min(Integer.MAX_VALUE, LineIndex.countLines(ByteSource.map(file.toPath())));
+        } catch (Exception e) {
+            System.out.println("Error reading file: " + e.getMessage());
+            return 0;
+        }
     }
 
     public String read_raw() {
@@ -143,13 +174,62 @@ public class FileAccess {
         return data;
     }
 
+    /**
+     * Reads one line (0-based) through the line index, which is built on the
+     * first call and reused until the file changes. Lines are split as in
+     * {@link #read()}: at \r\n, \n, \r, U+0085, U+2028 and U+2029.
+     */
     public String read(int line_number) {
-        List<String> data = read();
-        if (line_number < 0 || line_number >= data.size()) {
-            System.out.println("Line number out of bounds.");
+        try {
+            LineIndex index = lineIndex();
+            if (line_number < 0 || line_number >= index.lineCount()) {
+                System.out.println("Line number out of bounds.");
+                return null;
+            }
+            return index.line(line_number);
+        } catch (Exception e) {
+            System.out.println("Error reading file: " + e.getMessage());
             return null;
         }
-        return data.get(line_number);
+    }
+
+    /**
+     * Reads lines {@code from} (inclusive) to {@code to} (exclusive) through
+     * the line index; the range is clipped to the lines that exist.
+     */
+    public List<String> readLines(int from, int to) {
+        List<String> data = new ArrayList<>();
+        try {
+            LineIndex index = lineIndex();
+            for (int i = Math.max(from, 0); i < Math.min(to, index.lineCount()); i++) {
+                data.add(index.line(i));
+            }
+        } catch (Exception e) {
+            System.out.println("Error reading file: " + e.getMessage());
+        }
+        return data;
+    }
+
+    /**
+     * Returns the current line index, mapping and indexing the file again
+     * if its size or modification time changed. The file must not be
+     * truncated while lines are being read from it.
+     */
+    private synchronized LineIndex lineIndex() throws IOException {
+        // The stamp is taken before mapping, so a concurrent write is seen next time
+        BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        long size = attributes.size();
+        long modified = modified(attributes);
+        LineIndex index = lineIndex;
+        if (index == null || !index.matches(size, modified)) {
+            index = LineIndex.build(ByteSource.map(file.toPath()), size, modified);
+            lineIndex = index;
+        }
+        return index;
+    }
+
+    private static long modified(BasicFileAttributes attributes) {
+        return attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
     }
 
     public void write(String data, boolean append) {
@@ -0,0 +1,399 @@
+package src.utility;
+
+import java.nio.charset.StandardCharsets;
+
+import src.exception.JSONValidationException;
+
+/**
+ * =============================================================================
+ * JSONValidator.java
+ * =============================================================================
+ *
+ * Single-pass, allocation-free JSON grammar validator.
+ *
+ * Replaces the five separate passes of {@link SymbolBalancer#isFullyBalanced}
+ * with one walk over the input that checks the full RFC 8259 grammar:
+ * keys, colons and commas in the right places, string escapes, control
+ * characters, number syntax and literals. Brackets inside strings are
+ * ignored, as they should be.
+ *
+ * Open containers are tracked as one bit per nesting level in a primitive
+ * per-thread stack, so validating a document allocates nothing.
+ *
+ * EXAMPLE USAGE:
+ * --------------
+ * int offset = JSONValidator.firstError(message);   // -1 when valid
+ * JSONValidator.validate(message);                  // throws with offset and reason
+ * JSONValidator.isValid(bytes);                     // raw UTF-8, not decoded first
+ *
+ * =============================================================================
+ */
+public final class JSONValidator {
+
+    /** Deepest nesting accepted, matching the parsers. */
+    public static final int MAX_DEPTH = 1024;
+
+    private static final int EXPECT_VALUE = 0;
+    private static final int VALUE_OR_CLOSE = 1;
+    private static final int KEY_OR_CLOSE = 2;
+    private static final int EXPECT_KEY = 3;
+    private static final int EXPECT_COLON = 4;
+    private static final int AFTER_VALUE = 5;
+
+    private static final int UNEXPECTED_END = 0;
+    private static final int UNEXPECTED_CHARACTER = 1;
+    private static final int EXPECTED_KEY = 2;
+    private static final int EXPECTED_COLON = 3;
+    private static final int EXPECTED_SEPARATOR = 4;
+    private static final int MISMATCHED_BRACKET = 5;
+    private static final int TRAILING_CONTENT = 6;
+    private static final int UNTERMINATED_STRING = 7;
+    private static final int CONTROL_CHARACTER = 8;
+    private static final int INVALID_ESCAPE = 9;
+    private static final int INVALID_NUMBER = 10;
+    private static final int INVALID_LITERAL = 11;
+    private static final int TOO_DEEP = 12;
+
+    private static final String[] REASONS = {
+        "Unexpected end of input",
+        "Unexpected character",
+        "Expected string key",
+        "Expected ':' after key",
+        "Expected ',' or closing bracket",
+        "Mismatched closing bracket",
+        "Unexpected trailing content",
+        "Unterminated string",
+        "Unescaped control character in string",
+        "Invalid escape sequence",
+        "Invalid number",
+        "Invalid literal",
+        "Maximum nesting depth of " + MAX_DEPTH + " exceeded"
+    };
+
+    private static final StructuralScanner SCANNER = StructuralScanner.INSTANCE;
+
+    /** One bit per nesting level: 1 for an array, 0 for an object. */
+    private static final ThreadLocal<long[]> STACKS = ThreadLocal.withInitial(() -> new long[MAX_DEPTH / 64]);
+
+    private JSONValidator() {
+    }
+
+    /**
+     * Returns true if {@code json} is a single, syntactically valid JSON value.
+     */
+    public static boolean isValid(CharSequence json) {
+        return scan(json) < 0;
+    }
+
+    /**
+     * Returns the offset of the first grammar error, or -1 if {@code json}
+     * is valid.
+     */
+    public static int firstError(CharSequence json) {
+        long result = scan(json);
+        return result < 0 ? -1 : (int) (result >>> 8);
+    }
+
+    /**
+     * Validates {@code json} and reports the first error with its offset.
+     *
+     * @throws JSONValidationException If the input is not valid JSON.
+     */
+    public static void validate(CharSequence json) {
+        report(scan(json));
+    }
+
+    /**
+     * Byte-level variants for raw UTF-8 input, such as a message read off
+     * the network, so it can be checked before it is decoded. Offsets are
+     * byte offsets. Only the JSON grammar is checked, not the UTF-8 encoding
+     * of string contents.
+     */
+    public static boolean isValid(byte[] utf8) {
+        return scan(new Utf8View(utf8)) < 0;
+    }
+
+    public static int firstError(byte[] utf8) {
+        long result = scan(new Utf8View(utf8));
+        return result < 0 ? -1 : (int) (result >>> 8);
+    }
+
+    public static void validate(byte[] utf8) {
+        report(scan(new Utf8View(utf8)));
+    }
+
+    private static void report(long result) {
+        if (result >= 0) {
+            throw new JSONValidationException(REASONS[(int) (result & 0xFF)] + " at offset " + (result >>> 8));
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // 1. ------------------------- Grammar Walk ------------------------------
+    // ------------------------------------------------------------------------
+
+    /**
+     * Returns -1 when valid, otherwise {@code offset << 8 | reason}.
+     */
+    private static long scan(CharSequence s) {
+        long[] stack = STACKS.get();
+        int n = s.length();
+        int depth = 0;
+        int state = EXPECT_VALUE;
+        int i = 0;
+
+        while (true) {
+            while (i < n) {
+                char ch = s.charAt(i);
+                if (ch != ' ' && ch != '\n' && ch != '\r' && ch != '\t') break;
+                i++;
+            }
+            if (i == n) {
+                return depth == 0 && state == AFTER_VALUE ? -1 : error(i, UNEXPECTED_END);
+            }
+            char ch = s.charAt(i);
+
+            switch (state) {
+                case VALUE_OR_CLOSE:
+                    if (ch == ']') {
+                        depth--;
+                        i++;
+                        state = AFTER_VALUE;
+                        break;
+                    }
+                    state = EXPECT_VALUE;
+                    continue;
+                case EXPECT_VALUE: {
+                    if (ch == '{' || ch == '[') {
+                        if (depth == MAX_DEPTH) {
+                            return error(i, TOO_DEEP);
+                        }
+                        long bit = 1L << (depth & 63);
+                        if (ch == '[') {
+                            stack[depth >> 6] |= bit;
+                            state = VALUE_OR_CLOSE;
+                        } else {
+                            stack[depth >> 6] &= ~bit;
+                            state = KEY_OR_CLOSE;
+                        }
+                        depth++;
+                        i++;
+                        break;
+                    }
+                    long next;
+                    if (ch == '"') {
+                        next = scanString(s, i, n);
+                    } else if (ch == '-' || (ch >= '0' && ch <= '9')) {
+                        next = scanNumber(s, i, n);
+                    } else if (ch == 't') {
+                        next = scanLiteral(s, i, n, "true");
+                    } else if (ch == 'f') {
+                        next = scanLiteral(s, i, n, "false");
+                    } else if (ch == 'n') {
+                        next = scanLiteral(s, i, n, "null");
+                    } else {
+                        return error(i, UNEXPECTED_CHARACTER);
+                    }
+                    if (next < 0) {
+                        return ~next;
+                    }
+                    i = (int) next;
+                    state = AFTER_VALUE;
+                    break;
+                }
+                case KEY_OR_CLOSE:
+                    if (ch == '}') {
+                        depth--;
+                        i++;
+                        state = AFTER_VALUE;
+                        break;
+                    }
+                    state = EXPECT_KEY;
+                    continue;
+                case EXPECT_KEY: {
+                    if (ch != '"') {
+                        return error(i, EXPECTED_KEY);
+                    }
+                    long next = scanString(s, i, n);
+                    if (next < 0) {
+                        return ~next;
+                    }
+                    i = (int) next;
+                    state = EXPECT_COLON;
+                    break;
+                }
+                case EXPECT_COLON:
+                    if (ch != ':') {
+                        return error(i, EXPECTED_COLON);
+                    }
+                    i++;
+                    state = EXPECT_VALUE;
+                    break;
+                case AFTER_VALUE: {
+                    if (depth == 0) {
+                        return error(i, TRAILING_CONTENT);
+                    }
+                    int top = depth - 1;
+                    boolean inArray = (stack[top >> 6] & (1L << (top & 63))) != 0;
+                    if (ch == ',') {
+                        state = inArray ? EXPECT_VALUE : EXPECT_KEY;
+                    } else if (ch == ']' || ch == '}') {
+                        if ((ch == ']') != inArray) {
+                            return error(i, MISMATCHED_BRACKET);
+                        }
+                        depth--;
+                    } else {
+                        return error(i, EXPECTED_SEPARATOR);
+                    }
+                    i++;
+                    break;
+                }
+                default:
+                    throw new IllegalStateException("Corrupt validator state: " + state);
+            }
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // 2. ------------------------ Token Scanners -----------------------------
+    // ------------------------------------------------------------------------
+    // Each scanner returns the offset just past the token, or the bitwise
+    // complement of an encoded error.
+
+    private static long scanString(CharSequence s, int i, int n) {
+        int start = i;
+        i++; // opening quote
+        while (i < n) {
+            if (s instanceof Utf8View view) {
+                i = SCANNER.nextStringSpecial(view.bytes, i, n);
+                if (i == n) {
+                    break;
+                }
+            }
+            char ch = s.charAt(i);
+            if (ch == '"') {
+                return i + 1;
+            }
+            if (ch < 0x20) {
+                return ~error(i, CONTROL_CHARACTER);
+            }
+            if (ch == '\\') {
+                if (i + 1 >= n) {
+                    break;
+                }
+                char esc = s.charAt(i + 1);
+                if (esc == 'u') {
+                    if (i + 6 > n) {
+                        return ~error(i, INVALID_ESCAPE);
+                    }
+                    for (int k = i + 2; k < i + 6; k++) {
+                        if (Character.digit(s.charAt(k), 16) < 0) {
+                            return ~error(i, INVALID_ESCAPE);
+                        }
+                    }
+                    i += 6;
+                    continue;
+                }
+                if (esc != '"' && esc != '\\' && esc != '/' && esc != 'b'
+                        && esc != 'f' && esc != 'n' && esc != 'r' && esc != 't') {
+                    return ~error(i, INVALID_ESCAPE);
+                }
+                i += 2;
+                continue;
+            }
+            i++;
+        }
+        return ~error(start, UNTERMINATED_STRING);
+    }
+
+    private static long scanNumber(CharSequence s, int i, int n) {
+        int start = i;
+        if (s.charAt(i) == '-') {
+            i++;
+        }
+        if (i >= n || !isDigit(s.charAt(i))) {
+            return ~error(start, INVALID_NUMBER);
+        }
+        if (s.charAt(i) == '0') {
+            i++;
+        } else {
+            while (i < n && isDigit(s.charAt(i))) i++;
+        }
+        if (i < n && s.charAt(i) == '.') {
+            i++;
+            if (i >= n || !isDigit(s.charAt(i))) {
+                return ~error(start, INVALID_NUMBER);
+            }
+            while (i < n && isDigit(s.charAt(i))) i++;
+        }
+        if (i < n && (s.charAt(i) == 'e' || s.charAt(i) == 'E')) {
+            i++;
+            if (i < n && (s.charAt(i) == '+' || s.charAt(i) == '-')) i++;
+            if (i >= n || !isDigit(s.charAt(i))) {
+                return ~error(start, INVALID_NUMBER);
+            }
+            while (i < n && isDigit(s.charAt(i))) i++;
+        }
+        return i;
+    }
+
+    private static long scanLiteral(CharSequence s, int i, int n, String literal) {
+        int length = literal.length();
+        if (i + length > n) {
+            return ~error(i, INVALID_LITERAL);
+        }
+        for (int k = 1; k < length; k++) {
+            if (s.charAt(i + k) != literal.charAt(k)) {
+                return ~error(i, INVALID_LITERAL);
+            }
+        }
+        return i + length;
+    }
+
+    private static boolean isDigit(char ch) {
+        return ch >= '0' && ch <= '9';
+    }
+
+    private static long error(int offset, int reason) {
+        return ((long) offset << 8) | reason;
+    }
+
+    // ------------------------------------------------------------------------
+    // 3. -------------------------- Byte Input -------------------------------
+    // ------------------------------------------------------------------------
+
+    /**
+     * Presents UTF-8 bytes to the grammar walk as Latin-1 characters. Every
+     * byte of a multi-byte sequence maps to a character of 0x80 or above,
+     * which the grammar only ever sees inside strings, so the walk needs no
+     * decoding. String bodies are skipped with {@link StructuralScanner}.
+     */
+    private static final class Utf8View implements CharSequence {
+
+        final byte[] bytes;
+
+        Utf8View(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public int length() {
+            return bytes.length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (bytes[index] & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return new String(bytes, start, end - start, StandardCharsets.ISO_8859_1);
+        }
+
+        @Override
+        public String toString() {
+            return new String(bytes, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package src.utility;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * =============================================================================
+ * LineIndex.java
+ * =============================================================================
+ *
+ * Start offsets of every line of a memory-mapped text file, for random
+ * access to single lines and line ranges behind {@link FileAccess}.
+ *
+ * The index is built with one {@link StructuralScanner} pass for line
+ * terminators and costs 8 bytes per line. After that, reading line
+ * {@code i} is two array lookups and a copy of just that line's bytes,
+ * whatever the size of the file. Lines end where {@code Scanner.nextLine()}
+ * ends them: at {@code \r\n}, {@code \n}, {@code \r}, U+0085, U+2028 or
+ * U+2029 (in UTF-8), and a last line without a terminator still counts.
+ *
+ * An index records the size and modification time of the file it was
+ * built from, so callers can tell when it is stale with {@link #matches}.
+ *
+ * EXAMPLE USAGE:
+ * --------------
+ * LineIndex index = LineIndex.build(ByteSource.map(path), size, modified);
+ * String line = index.line(1_000_000);
+ *
+ * =============================================================================
+ */
+public final class LineIndex {
+
+    private static final int MAX_LINES = Integer.MAX_VALUE - 8;
+
+    private final ByteSource in;
+    private final long[] starts;
+    private final int lineCount;
+    private final long size;
+    private final long modified;
+
+    private LineIndex(ByteSource in, long[] starts, int lineCount, long size, long modified) {
+        this.in = in;
+        this.starts = starts;
+        this.lineCount = lineCount;
+        this.size = size;
+        this.modified = modified;
+    }
+
+    /**
+     * Indexes the lines of {@code in}.
+     *
+     * @param size     The file size the source was mapped at.
+     * @param modified The file's modification time, in any fixed unit.
+     * @throws IllegalArgumentException If the file has more than
+     *                                  {@code Integer.MAX_VALUE - 8} lines.
+     */
+    public static LineIndex build(ByteSource in, long size, long modified) {
+        long end = in.size();
+        long[] starts = new long[1024];
+        int count = 0;
+        for (long p = 0; p < end; ) {
+            if (count == starts.length) {
+                if (count == MAX_LINES) {
+                    throw new IllegalArgumentException("Too many lines to index: more than " + MAX_LINES);
+                }
+                starts = Arrays.copyOf(starts, (int) Math.min(MAX_LINES, count * 2L));
+            }
+            starts[count++] = p;
+            p = nextLineStart(in, p, end);
+        }
+        return new LineIndex(in, starts, count, size, modified);
+    }
+
+    /**
+     * Counts the lines of {@code in} the same way, without building an index.
+     */
+    public static long countLines(ByteSource in) {
+        long end = in.size();
+        long lines = 0;
+        for (long p = 0; p < end; p = nextLineStart(in, p, end)) {
+            lines++;
+        }
+        return lines;
+    }
+
+    /** True if this index was built from a file of this size and time. */
+    public boolean matches(long size, long modified) {
+        return this.size == size && this.modified == modified;
+    }
+
+    public int lineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Returns line {@code line} (0-based) without its line terminator.
+     *
+     * @throws IndexOutOfBoundsException If there is no such line.
+     */
+    public String line(int line) {
+        if (line < 0 || line >= lineCount) {
+            throw new IndexOutOfBoundsException("Line " + line + " out of bounds for " + lineCount + " lines");
+        }
+        long start = starts[line];
+        long end = line + 1 < lineCount ? starts[line + 1] : in.size();
+        long length = end - start - terminatorBefore(in, start, end);
+        if (length > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Line " + line + " is too long: " + length + " bytes");
+        }
+        byte[] bytes = new byte[(int) length];
+        in.get(start, bytes, 0, bytes.length);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // ------------------------------------------------------------------------
+    // 1. ------------------------ Line Terminators ---------------------------
+    // ------------------------------------------------------------------------
+
+    /** Position just past the terminator of the line at {@code from}, or {@code end}. */
+    private static long nextLineStart(ByteSource in, long from, long end) {
+        StructuralScanner scanner = StructuralScanner.INSTANCE;
+        for (long p = scanner.nextLineBreak(in, from, end); p < end; p = scanner.nextLineBreak(in, p + 1, end)) {
+            int length = terminatorAt(in, p, end);
+            if (length > 0) {
+                return p + length;
+            }
+        }
+        return end;
+    }
+
+    /** Length of the line terminator starting at {@code p}, or 0. */
+    private static int terminatorAt(ByteSource in, long p, long end) {
+        byte b = in.get(p);
+        if (b == '\n') {
+            return 1;
+        }
+        if (b == '\r') {
+            return p + 1 < end && in.get(p + 1) == '\n' ? 2 : 1;
+        }
+        if (b == (byte) 0xC2) {
+            return p + 1 < end && in.get(p + 1) == (byte) 0x85 ? 2 : 0; // U+0085
+        }
+        if (b == (byte) 0xE2 && p + 2 < end && in.get(p + 1) == (byte) 0x80) {
+            byte last = in.get(p + 2);
+            return last == (byte) 0xA8 || last == (byte) 0xA9 ? 3 : 0; // U+2028, U+2029
+        }
+        return 0;
+    }
+
+    /** Length of the line terminator ending at {@code end}, or 0. */
+    private static int terminatorBefore(ByteSource in, long start, long end) {
+        long length = end - start;
+        if (length == 0) {
+            return 0;
+        }
+        byte last = in.get(end - 1);
+        if (last == '\n') {
+            return length >= 2 && in.get(end - 2) == '\r' ? 2 : 1;
+        }
+        if (last == '\r') {
+            return 1;
+        }
+        if (last == (byte) 0x85 && length >= 2 && in.get(end - 2) == (byte) 0xC2) {
+            return 2;
+        }
+        if ((last == (byte) 0xA8 || last == (byte) 0xA9) && length >= 3
+                && in.get(end - 2) == (byte) 0x80 && in.get(end - 3) == (byte) 0xE2) {
+            return 3;
+        }
+        return 0;
+    }
+}
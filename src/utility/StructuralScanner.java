@@ -0,0 +1,372 @@
+package src.utility;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * =============================================================================
+ * StructuralScanner.java
+ * =============================================================================
+ *
+ * Finds structural bytes (quotes, backslashes, brackets, commas, colons,
+ * newlines) in UTF-8 input eight bytes at a time.
+ *
+ * The default implementation uses SWAR ("SIMD within a register") on
+ * little-endian {@code long} words: for a word {@code w} and a byte
+ * {@code b} broadcast to all lanes, {@code x = w ^ b} has a zero lane
+ * wherever {@code w} holds {@code b}, and
+ * {@code (x - 0x0101..01) & ~x & 0x8080..80} sets the high bit of exactly
+ * the first such lane. The lowest set bit gives the match position. Borrows
+ * can only produce false positives above a real match, so the first hit is
+ * always exact.
+ *
+ * A scalar implementation is kept as the reference and as a fallback; it is
+ * selected with {@code -Dnson.scanner=scalar}. The implementation is chosen
+ * once, when the class is initialized.
+ *
+ * Every search returns the position of the first match in
+ * {@code [from, to)}, or {@code to} when there is none; {@link #count}
+ * returns the number of matches.
+ *
+ * EXAMPLE USAGE:
+ * --------------
+ * long close = StructuralScanner.INSTANCE.nextQuoteOrEscape(source, start, end, (byte) '"');
+ *
+ * =============================================================================
+ */
+public abstract class StructuralScanner {
+
+    /** The implementation selected for this JVM. */
+    public static final StructuralScanner INSTANCE = select(System.getProperty("nson.scanner", "swar"));
+
+    private StructuralScanner() {
+    }
+
+    static StructuralScanner select(String name) {
+        return "scalar".equalsIgnoreCase(name) ? new Scalar() : new Swar();
+    }
+
+    /** Short name of the implementation, for diagnostics. */
+    public abstract String name();
+
+    /**
+     * Position of the first {@code target} byte.
+     */
+    public abstract long indexOf(ByteSource in, long from, long to, byte target);
+
+    /**
+     * Number of {@code target} bytes, e.g. newlines to count lines.
+     */
+    public abstract long count(ByteSource in, long from, long to, byte target);
+
+    /**
+     * Position of the first {@code quote} or backslash, which is where a
+     * string token either ends or needs unescaping.
+     */
+    public abstract long nextQuoteOrEscape(ByteSource in, long from, long to, byte quote);
+
+    /**
+     * Position of the first byte that needs attention inside a strict JSON
+     * string: a double quote, a backslash or a control character.
+     */
+    public abstract int nextStringSpecial(byte[] in, int from, int to);
+
+    /**
+     * Position of the first structural byte: one of {@code { } [ ] , : "},
+     * a backslash, or a single quote, which the parsers also accept as a
+     * string delimiter.
+     */
+    public abstract long nextStructural(ByteSource in, long from, long to);
+
+    /**
+     * Returns true if no byte in the range has its high bit set.
+     */
+    public abstract boolean isAscii(ByteSource in, long from, long to);
+
+    /**
+     * Position of the first byte that may begin a line terminator: a
+     * {@code \n}, a {@code \r}, or 0xC2 or 0xE2, the UTF-8 lead bytes of
+     * U+0085 and of U+2028 and U+2029. The caller checks what follows a
+     * lead byte.
+     */
+    public abstract long nextLineBreak(ByteSource in, long from, long to);
+
+    // ------------------------------------------------------------------------
+    // 1. ----------------------------- SWAR ----------------------------------
+    // ------------------------------------------------------------------------
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGHS = 0x8080808080808080L;
+
+    private static final long QUOTE = broadcast('"');
+    private static final long APOSTROPHE = broadcast('\'');
+    private static final long BACKSLASH = broadcast('\\');
+    private static final long OPEN_BRACE = broadcast('{');
+    private static final long CLOSE_BRACE = broadcast('}');
+    private static final long OPEN_BRACKET = broadcast('[');
+    private static final long CLOSE_BRACKET = broadcast(']');
+    private static final long COMMA = broadcast(',');
+    private static final long COLON = broadcast(':');
+    private static final long NEWLINE = broadcast('\n');
+    private static final long CARRIAGE_RETURN = broadcast('\r');
+    private static final long LEAD_C2 = broadcast(0xC2);
+    private static final long LEAD_E2 = broadcast(0xE2);
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private static long broadcast(int b) {
+        return (b & 0xFF) * ONES;
+    }
+
+    /** High bit set in the first lane of {@code word} equal to the broadcast byte. */
+    private static long matches(long word, long pattern) {
+        long x = word ^ pattern;
+        return (x - ONES) & ~x & HIGHS;
+    }
+
+    /**
+     * High bit set in every lane of {@code word} equal to the broadcast
+     * byte. Slower than {@link #matches} but without false positives, for
+     * counting.
+     */
+    private static long allMatches(long word, long pattern) {
+        long x = word ^ pattern;
+        long low7 = ~HIGHS;
+        return ~(((x & low7) + low7) | x | low7);
+    }
+
+    /** High bit set in the first lane of {@code word} below 0x20. */
+    private static long controls(long word) {
+        return (word - broadcast(0x20)) & ~word & HIGHS;
+    }
+
+    private static final class Swar extends StructuralScanner {
+
+        @Override
+        public String name() {
+            return "swar";
+        }
+
+        @Override
+        public long indexOf(ByteSource in, long from, long to, byte target) {
+            long pattern = broadcast(target);
+            long p = from;
+            for (; p + 8 <= to; p += 8) {
+                long hit = matches(in.getLong(p), pattern);
+                if (hit != 0) {
+                    return p + (Long.numberOfTrailingZeros(hit) >>> 3);
+                }
+            }
+            for (; p < to; p++) {
+                if (in.get(p) == target) {
+                    return p;
+                }
+            }
+            return to;
+        }
+
+        @Override
+        public long count(ByteSource in, long from, long to, byte target) {
+            long pattern = broadcast(target);
+            long count = 0;
+            long p = from;
+            for (; p + 8 <= to; p += 8) {
+                count += Long.bitCount(allMatches(in.getLong(p), pattern));
+            }
+            for (; p < to; p++) {
+                if (in.get(p) == target) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public long nextQuoteOrEscape(ByteSource in, long from, long to, byte quote) {
+            long pattern = broadcast(quote);
+            long p = from;
+            for (; p + 8 <= to; p += 8) {
+                long word = in.getLong(p);
+                long hit = matches(word, pattern) | matches(word, BACKSLASH);
+                if (hit != 0) {
+                    return p + (Long.numberOfTrailingZeros(hit) >>> 3);
+                }
+            }
+            for (; p < to; p++) {
+                byte b = in.get(p);
+                if (b == quote || b == '\\') {
+                    return p;
+                }
+            }
+            return to;
+        }
+
+        @Override
+        public int nextStringSpecial(byte[] in, int from, int to) {
+            int p = from;
+            for (; p + 8 <= to; p += 8) {
+                long word = (long) LONGS.get(in, p);
+                long hit = matches(word, QUOTE) | matches(word, BACKSLASH) | controls(word);
+                if (hit != 0) {
+                    return p + (Long.numberOfTrailingZeros(hit) >>> 3);
+                }
+            }
+            for (; p < to; p++) {
+                int b = in[p] & 0xFF;
+                if (b == '"' || b == '\\' || b < 0x20) {
+                    return p;
+                }
+            }
+            return to;
+        }
+
+        @Override
+        public long nextStructural(ByteSource in, long from, long to) {
+            long p = from;
+            for (; p + 8 <= to; p += 8) {
+                long word = in.getLong(p);
+                long hit = matches(word, OPEN_BRACE) | matches(word, CLOSE_BRACE)
+                    | matches(word, OPEN_BRACKET) | matches(word, CLOSE_BRACKET)
+                    | matches(word, COMMA) | matches(word, COLON)
+                    | matches(word, QUOTE) | matches(word, APOSTROPHE)
+                    | matches(word, BACKSLASH);
+                if (hit != 0) {
+                    return p + (Long.numberOfTrailingZeros(hit) >>> 3);
+                }
+            }
+            for (; p < to; p++) {
+                if (isStructural(in.get(p))) {
+                    return p;
+                }
+            }
+            return to;
+        }
+
+        @Override
+        public boolean isAscii(ByteSource in, long from, long to) {
+            long p = from;
+            long high = 0;
+            for (; p + 8 <= to; p += 8) {
+                high |= in.getLong(p);
+            }
+            for (; p < to; p++) {
+                high |= in.get(p);
+            }
+            return (high & HIGHS) == 0;
+        }
+
+        @Override
+        public long nextLineBreak(ByteSource in, long from, long to) {
+            long p = from;
+            for (; p + 8 <= to; p += 8) {
+                long word = in.getLong(p);
+                long hit = matches(word, NEWLINE) | matches(word, CARRIAGE_RETURN)
+                    | matches(word, LEAD_C2) | matches(word, LEAD_E2);
+                if (hit != 0) {
+                    return p + (Long.numberOfTrailingZeros(hit) >>> 3);
+                }
+            }
+            for (; p < to; p++) {
+                if (isLineBreakStart(in.get(p))) {
+                    return p;
+                }
+            }
+            return to;
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // 2. ---------------------------- Scalar ---------------------------------
+    // ------------------------------------------------------------------------
+
+    private static final class Scalar extends StructuralScanner {
+
+        @Override
+        public String name() {
+            return "scalar";
+        }
+
+        @Override
+        public long indexOf(ByteSource in, long from, long to, byte target) {
+            for (long p = from; p < to; p++) {
+                if (in.get(p) == target) {
+                    return p;
+                }
+            }
+            return to;
+        }
+
+        @Override
+        public long count(ByteSource in, long from, long to, byte target) {
+            long count = 0;
+            for (long p = from; p < to; p++) {
+                if (in.get(p) == target) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        @Override
+        public long nextQuoteOrEscape(ByteSource in, long from, long to, byte quote) {
+            for (long p = from; p < to; p++) {
+                byte b = in.get(p);
+                if (b == quote || b == '\\') {
+                    return p;
+                }
+            }
+            return to;
+        }
+
+        @Override
+        public int nextStringSpecial(byte[] in, int from, int to) {
+            for (int p = from; p < to; p++) {
+                int b = in[p] & 0xFF;
+                if (b == '"' || b == '\\' || b < 0x20) {
+                    return p;
+                }
+            }
+            return to;
+        }
+
+        @Override
+        public long nextStructural(ByteSource in, long from, long to) {
+            for (long p = from; p < to; p++) {
+                if (isStructural(in.get(p))) {
+                    return p;
+                }
+            }
+            return to;
+        }
+
+        @Override
+        public boolean isAscii(ByteSource in, long from, long to) {
+            for (long p = from; p < to; p++) {
+                if (in.get(p) < 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public long nextLineBreak(ByteSource in, long from, long to) {
+            for (long p = from; p < to; p++) {
+                if (isLineBreakStart(in.get(p))) {
+                    return p;
+                }
+            }
+            return to;
+        }
+    }
+
+    private static boolean isLineBreakStart(byte b) {
+        return b == '\n' || b == '\r' || b == (byte) 0xC2 || b == (byte) 0xE2;
+    }
+
+    private static boolean isStructural(byte b) {
+        return b == '{' || b == '}' || b == '[' || b == ']' || b == ','
+            || b == ':' || b == '"' || b == '\'' || b == '\\';
+    }
+}
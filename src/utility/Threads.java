@@ -0,0 +1,69 @@
+package src.utility;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * =============================================================================
+ * Threads.java
+ * =============================================================================
+ *
+ * Access to virtual threads without requiring a Java 21 compiler or runtime.
+ *
+ * On Java 21 and later, {@link #newVirtualThreadPerTaskExecutor()} returns
+ * {@code Executors.newVirtualThreadPerTaskExecutor()}, looked up once by
+ * reflection. On older runtimes it falls back to a cached pool of daemon
+ * platform threads, which behaves the same for callers that bound their
+ * own concurrency.
+ *
+ * EXAMPLE USAGE:
+ * --------------
+ * ExecutorService pool = Threads.newVirtualThreadPerTaskExecutor();
+ * ...
+ * pool.shutdown();
+ *
+ * =============================================================================
+ */
+public final class Threads {
+
+    private static final Method VIRTUAL_PER_TASK = lookup();
+
+    private Threads() {
+    }
+
+    private static Method lookup() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns true if the running JVM supports virtual threads.
+     */
+    public static boolean hasVirtualThreads() {
+        return VIRTUAL_PER_TASK != null;
+    }
+
+    /**
+     * Returns an executor that starts a new virtual thread for each task, or
+     * a cached pool of daemon threads when virtual threads are unavailable.
+     * The caller owns the executor and must shut it down.
+     */
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        if (VIRTUAL_PER_TASK != null) {
+            try {
+                return (ExecutorService) VIRTUAL_PER_TASK.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                // Fall back to platform threads below
+            }
+        }
+        return Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "nson-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
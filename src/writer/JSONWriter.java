@@ -0,0 +1,523 @@
+package src.writer;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.IntToLongFunction;
+
+import src.binding.ClassCodec;
+import src.codegen.GeneratedCodec;
+import src.codegen.GeneratedCodecs;
+import src.codegen.MemberWriter;
+import src.exception.JSONFileException;
+import src.exception.JSONValidationException;
+import src.parser.DoubleArrayList;
+import src.parser.LongArrayList;
+
+/**
+ * =============================================================================
+ * JSONWriter.java
+ * =============================================================================
+ *
+ * Single-pass serializer behind {@code NSON.dumps()} and {@code NSON.dump()}.
+ *
+ * The whole tree is written into one {@link StringBuilder}. When the target
+ * is itself a StringBuilder it is used directly; any other {@link Appendable}
+ * receives the output in chunks of {@link #FLUSH_THRESHOLD} characters, so
+ * no value is ever copied once per ancestor.
+ *
+ * FORMATTING:
+ * -----------
+ * - {@code indent > 0}: pretty-printed, one element per line
+ * - {@code indent == 0}: compact, no whitespace at all
+ * - {@code sortKeys}: object keys are written in natural String order
+ *
+ * Supported values are Maps, Collections, arrays, Strings, Numbers,
+ * Booleans, enums (by name), null, and records and POJOs, which are written
+ * member by member through their compile-time {@link GeneratedCodec} if
+ * one exists, or else their {@link ClassCodec}. Any other object,
+ * such as a {@code java.*} value type, is written as the JSON string of
+ * {@code toString()}.
+ * {@code long[]} and {@code double[]} arrays and the parsers'
+ * {@link LongArrayList} and {@link DoubleArrayList} are written without
+ * boxing their elements.
+ *
+ * EXAMPLE USAGE:
+ * --------------
+ * String json = JSONWriter.toJson(map, 4, true);
+ *
+ * =============================================================================
+ */
+public class JSONWriter {
+
+    /** Buffered characters after which output is handed to a non-StringBuilder target. */
+    public static final int FLUSH_THRESHOLD = 8192;
+
+    /** Nesting limit, which also catches self-referencing structures. */
+    public static final int MAX_DEPTH = 1024;
+
+    private static final String NEWLINE_AND_SPACES = "\n" + " ".repeat(256);
+
+    private static final Comparator<Map.Entry<?, ?>> KEY_ORDER =
+        (a, b) -> String.valueOf(a.getKey()).compareTo(String.valueOf(b.getKey()));
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final StringBuilder buf;
+    private final Appendable sink;
+    private final int indent;
+    private final boolean sortKeys;
+
+    public JSONWriter(Appendable out, int indent, boolean sortKeys) {
+        if (out instanceof StringBuilder sb) {
+            this.buf = sb;
+            this.sink = null;
+        } else {
+            this.buf = new StringBuilder(FLUSH_THRESHOLD + 256);
+            this.sink = out;
+        }
+        this.indent = Math.max(indent, 0);
+        this.sortKeys = sortKeys;
+    }
+
+    /**
+     * Serializes {@code value} into a new String.
+     */
+    public static String toJson(Object value, int indent, boolean sortKeys) {
+        StringBuilder sb = new StringBuilder(256);
+        new JSONWriter(sb, indent, sortKeys).write(value);
+        return sb.toString();
+    }
+
+    /**
+     * Writes {@code value} and flushes any buffered output to the target.
+     *
+     * @throws JSONFileException       If the target Appendable fails.
+     * @throws JSONValidationException If the value cannot be represented.
+     */
+    public void write(Object value) {
+        try {
+            writeValue(value, 0);
+            flush();
+        } catch (IOException e) {
+            throw new JSONFileException("Failed to write JSON output: " + e.getMessage());
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // 1. --------------------------- Values ----------------------------------
+    // ------------------------------------------------------------------------
+
+    private void writeValue(Object value, int level) throws IOException {
+        if (value == null) {
+            buf.append("null");
+        } else if (value instanceof String str) {
+            writeString(str);
+        } else if (value instanceof Map<?, ?> map) {
+            writeMap(map, level);
+        } else if (value instanceof Collection<?> collection) {
+            writeList(collection, level);
+        } else if (value instanceof Number number) {
+            writeNumber(number);
+        } else if (value instanceof Boolean bool) {
+            buf.append(bool.booleanValue());
+        } else if (value instanceof Enum<?> constant) {
+            writeString(constant.name());
+        } else if (value.getClass().isArray()) {
+            writeArray(value, level);
+        } else if (GeneratedCodecs.find(value.getClass()) != null) {
+            writeGenerated(GeneratedCodecs.find(value.getClass()), value, level);
+        } else if (ClassCodec.isBindable(value.getClass())) {
+            writeObject(ClassCodec.of(value.getClass()), value, level);
+        } else {
+            writeString(value.toString());
+        }
+        if (sink != null && buf.length() >= FLUSH_THRESHOLD) {
+            flush();
+        }
+    }
+
+    private void writeMap(Map<?, ?> map, int level) throws IOException {
+        if (map.isEmpty()) {
+            buf.append("{}");
+            return;
+        }
+        checkDepth(level);
+        buf.append('{');
+        boolean first = true;
+        if (sortKeys) {
+            Map.Entry<?, ?>[] entries = map.entrySet().toArray(new Map.Entry<?, ?>[0]);
+            Arrays.sort(entries, KEY_ORDER);
+            for (Map.Entry<?, ?> entry : entries) {
+                writeEntry(first, String.valueOf(entry.getKey()), entry.getValue(), level);
+                first = false;
+            }
+        } else {
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                writeEntry(first, String.valueOf(entry.getKey()), entry.getValue(), level);
+                first = false;
+            }
+        }
+        newline(level);
+        buf.append('}');
+    }
+
+    private void writeEntry(boolean first, String key, Object value, int level) throws IOException {
+        writeKey(first, key, level);
+        writeValue(value, level + 1);
+    }
+
+    private void writeKey(boolean first, String key, int level) {
+        if (!first) {
+            buf.append(',');
+        }
+        newline(level + 1);
+        writeString(key);
+        buf.append(':');
+        if (indent > 0) {
+            buf.append(' ');
+        }
+    }
+
+    /**
+     * Writes a record or POJO through its codec, member by member, as if it
+     * were a Map.
+     */
+    private void writeObject(ClassCodec<?> codec, Object value, int level) throws IOException {
+        int size = codec.size();
+        if (size == 0) {
+            buf.append("{}");
+            return;
+        }
+        checkDepth(level);
+        buf.append('{');
+        for (int i = 0; i < size; i++) {
+            int slot = sortKeys ? codec.sortedSlot(i) : i;
+            writeEntry(i == 0, codec.name(slot), codec.get(value, slot), level);
+        }
+        newline(level);
+        buf.append('}');
+    }
+
+    /**
+     * Writes a record through its generated codec. With sortKeys the members
+     * are collected and sorted first; otherwise they go straight to the
+     * buffer in declaration order, primitives without boxing.
+     */
+    private <T> void writeGenerated(GeneratedCodec<T> codec, Object value, int level) throws IOException {
+        checkDepth(level);
+        T instance = codec.type().cast(value);
+        buf.append('{');
+        boolean empty;
+        if (sortKeys) {
+            List<Map.Entry<String, Object>> members = new ArrayList<>();
+            codec.writeMembers(instance, new SortedMembers(members));
+            members.sort(KEY_ORDER);
+            for (int i = 0; i < members.size(); i++) {
+                writeEntry(i == 0, members.get(i).getKey(), members.get(i).getValue(), level);
+            }
+            empty = members.isEmpty();
+        } else {
+            Members members = new Members(level);
+            codec.writeMembers(instance, members);
+            empty = members.first;
+        }
+        if (!empty) {
+            newline(level);
+        }
+        buf.append('}');
+    }
+
+    private void writeArray(Object array, int level) throws IOException {
+        int length = Array.getLength(array);
+        if (length == 0) {
+            buf.append("[]");
+            return;
+        }
+        checkDepth(level);
+        if (array instanceof long[] longs) {
+            writeLongs(i -> longs[i], length, level);
+            return;
+        }
+        if (array instanceof double[] doubles) {
+            writeDoubles(i -> doubles[i], null, length, level);
+            return;
+        }
+        buf.append('[');
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                buf.append(',');
+            }
+            newline(level + 1);
+            writeValue(Array.get(array, i), level + 1);
+        }
+        newline(level);
+        buf.append(']');
+    }
+
+    private void writeList(Collection<?> list, int level) throws IOException {
+        if (list.isEmpty()) {
+            buf.append("[]");
+            return;
+        }
+        checkDepth(level);
+        if (list instanceof LongArrayList longs) {
+            writeLongs(longs::getLong, longs.size(), level);
+            return;
+        }
+        if (list instanceof DoubleArrayList doubles) {
+            writeDoubles(doubles::getDouble, doubles::isInteger, doubles.size(), level);
+            return;
+        }
+        buf.append('[');
+        boolean first = true;
+        for (Object item : list) {
+            if (!first) {
+                buf.append(',');
+            }
+            newline(level + 1);
+            writeValue(item, level + 1);
+            first = false;
+        }
+        newline(level);
+        buf.append(']');
+    }
+
+    // Primitive arrays and lists are written element by element without boxing
+
+    private void writeLongs(IntToLongFunction values, int length, int level) throws IOException {
+        buf.append('[');
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                buf.append(',');
+            }
+            newline(level + 1);
+            buf.append(values.applyAsLong(i));
+            if (sink != null && buf.length() >= FLUSH_THRESHOLD) {
+                flush();
+            }
+        }
+        newline(level);
+        buf.append(']');
+    }
+
+    /** {@code integers} flags elements to write as longs, or is null. */
+    private void writeDoubles(IntToDoubleFunction values, IntPredicate integers, int length, int level) throws IOException {
+        buf.append('[');
+        for (int i = 0; i < length; i++) {
+            if (i > 0) {
+                buf.append(',');
+            }
+            newline(level + 1);
+            double d = values.applyAsDouble(i);
+            if (integers != null && integers.test(i)) {
+                buf.append((long) d);
+            } else {
+                checkFinite(d);
+                buf.append(d);
+            }
+            if (sink != null && buf.length() >= FLUSH_THRESHOLD) {
+                flush();
+            }
+        }
+        newline(level);
+        buf.append(']');
+    }
+
+    private void writeNumber(Number number) {
+        if (number instanceof Long || number instanceof Integer || number instanceof Short || number instanceof Byte) {
+            buf.append(number.longValue());
+        } else if (number instanceof Double || number instanceof Float) {
+            double d = number.doubleValue();
+            checkFinite(d);
+            if (number instanceof Float) {
+                buf.append(number.floatValue());
+            } else {
+                buf.append(d);
+            }
+        } else {
+            buf.append(number.toString());
+        }
+    }
+
+    /**
+     * Writes a quoted string. The common case of a string that needs no
+     * escaping is appended in a single call after one scan.
+     */
+    private void writeString(String str) {
+        buf.append('"');
+        int length = str.length();
+        int run = 0;
+        for (int i = 0; i < length; i++) {
+            char ch = str.charAt(i);
+            if (ch >= 0x20 && ch != '"' && ch != '\\') {
+                continue;
+            }
+            buf.append(str, run, i);
+            switch (ch) {
+                case '"':  buf.append("\\\""); break;
+                case '\\': buf.append("\\\\"); break;
+                case '\n': buf.append("\\n");  break;
+                case '\r': buf.append("\\r");  break;
+                case '\t': buf.append("\\t");  break;
+                case '\b': buf.append("\\b");  break;
+                case '\f': buf.append("\\f");  break;
+                default:
+                    buf.append("\\u00").append(HEX[ch >> 4]).append(HEX[ch & 0xF]);
+            }
+            run = i + 1;
+        }
+        buf.append(str, run, length);
+        buf.append('"');
+    }
+
+    // ------------------------------------------------------------------------
+    // 2. ----------------------- Generated Members ---------------------------
+    // ------------------------------------------------------------------------
+
+    /** Writes the members of one object straight into the buffer. */
+    private final class Members implements MemberWriter {
+
+        private final int level;
+        boolean first = true;
+
+        Members(int level) {
+            this.level = level;
+        }
+
+        private void key(String name) {
+            writeKey(first, name, level);
+            first = false;
+        }
+
+        @Override
+        public void member(String name, Object value) throws IOException {
+            key(name);
+            writeValue(value, level + 1);
+        }
+
+        @Override
+        public void member(String name, String value) {
+            key(name);
+            if (value == null) {
+                buf.append("null");
+            } else {
+                writeString(value);
+            }
+        }
+
+        @Override
+        public void member(String name, long value) {
+            key(name);
+            buf.append(value);
+        }
+
+        @Override
+        public void member(String name, float value) {
+            checkFinite(value);
+            key(name);
+            buf.append(value);
+        }
+
+        @Override
+        public void member(String name, double value) {
+            checkFinite(value);
+            key(name);
+            buf.append(value);
+        }
+
+        @Override
+        public void member(String name, boolean value) {
+            key(name);
+            buf.append(value);
+        }
+    }
+
+    /** Collects boxed members so they can be sorted by name first. */
+    private static final class SortedMembers implements MemberWriter {
+
+        private final List<Map.Entry<String, Object>> members;
+
+        SortedMembers(List<Map.Entry<String, Object>> members) {
+            this.members = members;
+        }
+
+        @Override
+        public void member(String name, Object value) {
+            members.add(new AbstractMap.SimpleImmutableEntry<>(name, value));
+        }
+
+        @Override
+        public void member(String name, String value) {
+            member(name, (Object) value);
+        }
+
+        @Override
+        public void member(String name, long value) {
+            member(name, (Object) value);
+        }
+
+        @Override
+        public void member(String name, float value) {
+            member(name, (Object) value);
+        }
+
+        @Override
+        public void member(String name, double value) {
+            member(name, (Object) value);
+        }
+
+        @Override
+        public void member(String name, boolean value) {
+            member(name, (Object) value);
+        }
+    }
+
+    // ------------------------------------------------------------------------
+    // 3. --------------------------- Helpers ---------------------------------
+    // ------------------------------------------------------------------------
+
+    /**
+     * Starts a new line indented for {@code level}; a no-op in compact mode.
+     * Indentation is sliced from a shared constant instead of being built.
+     */
+    private void newline(int level) {
+        if (indent == 0) {
+            return;
+        }
+        int spaces = indent * level;
+        int chunk = Math.min(spaces, NEWLINE_AND_SPACES.length() - 1);
+        buf.append(NEWLINE_AND_SPACES, 0, chunk + 1);
+        for (spaces -= chunk; spaces > 0; spaces -= chunk) {
+            chunk = Math.min(spaces, NEWLINE_AND_SPACES.length() - 1);
+            buf.append(NEWLINE_AND_SPACES, 1, chunk + 1);
+        }
+    }
+
+    private static void checkFinite(double d) {
+        if (Double.isNaN(d) || Double.isInfinite(d)) {
+            throw new JSONValidationException("Out of range float values are not JSON compliant: " + d);
+        }
+    }
+
+    private void checkDepth(int level) {
+        if (level >= MAX_DEPTH) {
+            throw new JSONValidationException("Maximum nesting depth of " + MAX_DEPTH + " exceeded (circular reference?)");
+        }
+    }
+
+    private void flush() throws IOException {
+        if (sink != null && buf.length() > 0) {
+            sink.append(buf);
+            buf.setLength(0);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package src.writer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * =============================================================================
+ * Utf8ChannelWriter.java
+ * =============================================================================
+ *
+ * {@link Appendable} that encodes characters to UTF-8 on the fly and writes
+ * them to a channel through a direct {@link ByteBuffer}.
+ *
+ * Buffers are borrowed from a per-thread pool and handed back by
+ * {@link #finish()}, so repeated dumps on the same thread reuse one buffer
+ * and never allocate a copy of the document.
+ *
+ * =============================================================================
+ */
+public class Utf8ChannelWriter implements Appendable {
+
+    public static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final ThreadLocal<ByteBuffer> POOL = new ThreadLocal<>();
+
+    private final WritableByteChannel channel;
+    private ByteBuffer out;
+    private char pendingHigh;
+
+    public Utf8ChannelWriter(WritableByteChannel channel) {
+        this.channel = channel;
+        ByteBuffer buffer = POOL.get();
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        } else {
+            POOL.set(null); // nested writers on this thread get their own buffer
+        }
+        buffer.clear();
+        this.out = buffer;
+    }
+
+    @Override
+    public Appendable append(CharSequence csq) throws IOException {
+        return append(csq, 0, csq.length());
+    }
+
+    @Override
+    public Appendable append(CharSequence csq, int start, int end) throws IOException {
+        ensureOpen();
+        for (int i = start; i < end; i++) {
+            char ch = csq.charAt(i);
+            if (ch < 0x80 && pendingHigh == 0) {
+                if (!out.hasRemaining()) {
+                    drain();
+                }
+                out.put((byte) ch);
+            } else {
+                encode(ch);
+            }
+        }
+        return this;
+    }
+
+    @Override
+    public Appendable append(char ch) throws IOException {
+        ensureOpen();
+        encode(ch);
+        return this;
+    }
+
+    /**
+     * Writes everything still buffered and returns the buffer to the pool.
+     * The channel itself is left open.
+     */
+    public void finish() throws IOException {
+        ensureOpen();
+        if (pendingHigh != 0) {
+            pendingHigh = 0;
+            putReplacement();
+        }
+        drain();
+        POOL.set(out);
+        out = null;
+    }
+
+    private void encode(char ch) throws IOException {
+        if (out.remaining() < 4) {
+            drain();
+        }
+        if (pendingHigh != 0) {
+            char high = pendingHigh;
+            pendingHigh = 0;
+            if (Character.isLowSurrogate(ch)) {
+                int code = Character.toCodePoint(high, ch);
+                out.put((byte) (0xF0 | (code >> 18)));
+                out.put((byte) (0x80 | ((code >> 12) & 0x3F)));
+                out.put((byte) (0x80 | ((code >> 6) & 0x3F)));
+                out.put((byte) (0x80 | (code & 0x3F)));
+                return;
+            }
+            putReplacement();
+        }
+        if (ch < 0x80) {
+            out.put((byte) ch);
+        } else if (ch < 0x800) {
+            out.put((byte) (0xC0 | (ch >> 6)));
+            out.put((byte) (0x80 | (ch & 0x3F)));
+        } else if (Character.isHighSurrogate(ch)) {
+            pendingHigh = ch;
+        } else if (Character.isLowSurrogate(ch)) {
+            putReplacement();
+        } else {
+            out.put((byte) (0xE0 | (ch >> 12)));
+            out.put((byte) (0x80 | ((ch >> 6) & 0x3F)));
+            out.put((byte) (0x80 | (ch & 0x3F)));
+        }
+    }
+
+    /** Unpaired surrogates are written as '?', matching String.getBytes. */
+    private void putReplacement() throws IOException {
+        if (!out.hasRemaining()) {
+            drain();
+        }
+        out.put((byte) '?');
+    }
+
+    private void drain() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (out == null) {
+            throw new IOException("Writer already finished");
+        }
+    }
+}